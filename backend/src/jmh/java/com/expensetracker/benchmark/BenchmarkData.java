@@ -0,0 +1,88 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.entity.User;
+import com.expensetracker.features.category.Category;
+import com.expensetracker.features.expense.Expense;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic datasets and repository stubs shared by the benchmarks.
+ * Generation is seeded so runs are comparable.
+ */
+public final class BenchmarkData {
+
+    public static final long USER_ID = 1L;
+
+    private static final String[] CATEGORY_NAMES = {
+            "Food", "Transport", "Entertainment", "Shopping", "Bills", "Healthcare",
+            "Medical", "Charity", "Business", "Education", "Rent", "Other"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Repository stub that does not record invocations, so it does not grow
+     * across millions of benchmark calls.
+     */
+    public static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    public static Random random() {
+        return new Random(42);
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setEmail("bench@example.com");
+        user.setFullName("Bench User");
+        user.setPassword("password");
+        return user;
+    }
+
+    public static List<Category> categories(User user) {
+        List<Category> categories = new ArrayList<>(CATEGORY_NAMES.length);
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            Category category = Category.builder().name(CATEGORY_NAMES[i]).user(user).build();
+            category.setId(i + 1L);
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    /** Amount between 1.00 and 500.00 with two decimals. */
+    public static BigDecimal amount(Random random) {
+        return BigDecimal.valueOf(100 + random.nextInt(49_900), 2);
+    }
+
+    /**
+     * {@code size} expenses spread over {@code days} days starting at {@code start};
+     * roughly one in ten has no category.
+     */
+    public static List<Expense> expenses(int size, LocalDate start, int days) {
+        Random random = random();
+        User user = user();
+        List<Category> categories = categories(user);
+        List<Expense> expenses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Expense expense = Expense.builder()
+                    .description("Expense " + i)
+                    .amount(amount(random))
+                    .date(start.plusDays(random.nextInt(days)))
+                    .category(random.nextInt(10) == 0 ? null : categories.get(random.nextInt(categories.size())))
+                    .user(user)
+                    .build();
+            expense.setId((long) i + 1);
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+}
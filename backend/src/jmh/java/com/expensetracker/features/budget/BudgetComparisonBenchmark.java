@@ -0,0 +1,100 @@
+package com.expensetracker.features.budget;
+
+import com.expensetracker.benchmark.BenchmarkData;
+import com.expensetracker.entity.User;
+import com.expensetracker.features.category.Category;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * BudgetService.getBudgetComparison (one range query, category-keyed map join)
+ * against the previous per-budget linear search, for {@code size} categories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BudgetComparisonBenchmark {
+
+    private static final int YEAR = 2024;
+    private static final int MONTH = 6;
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int size;
+
+    private BudgetService budgetService;
+    private List<Budget> currentBudgets;
+    private List<Budget> previousBudgets;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        User user = BenchmarkData.user();
+
+        currentBudgets = new ArrayList<>(size);
+        previousBudgets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Category category = Category.builder().name("Category " + i).user(user).build();
+            category.setId(i + 1L);
+            currentBudgets.add(budget(user, category, MONTH, random));
+            previousBudgets.add(budget(user, category, MONTH - 1, random));
+        }
+        // Previous month in reverse order so the linear search has to walk the list
+        Collections.reverse(previousBudgets);
+
+        List<Budget> range = new ArrayList<>(currentBudgets);
+        range.addAll(previousBudgets);
+
+        BudgetRepository budgetRepository = BenchmarkData.stub(BudgetRepository.class);
+        when(budgetRepository.findByUserIdAndPeriodRange(anyLong(), anyInt(), anyInt(), anyInt(), anyInt()))
+                .thenReturn(range);
+
+        budgetService = new BudgetService();
+        ReflectionTestUtils.setField(budgetService, "budgetRepository", budgetRepository);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapJoin() {
+        return budgetService.getBudgetComparison(BenchmarkData.USER_ID, YEAR, MONTH);
+    }
+
+    /** The matching step as it was before the map join: a scan of the previous month per budget. */
+    @Benchmark
+    public void linearSearchBaseline(Blackhole blackhole) {
+        for (Budget current : currentBudgets) {
+            Optional<Budget> previous = previousBudgets
+                    .stream()
+                    .filter(b -> b.getCategory().getId().equals(current.getCategory().getId()))
+                    .findFirst();
+            blackhole.consume(previous);
+        }
+    }
+
+    private Budget budget(User user, Category category, int month, Random random) {
+        BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(2000));
+        return Budget.builder()
+                .user(user)
+                .category(category)
+                .amount(amount)
+                .spent(amount.multiply(BigDecimal.valueOf(random.nextInt(121))).movePointLeft(2))
+                .year(YEAR)
+                .month(month)
+                .build();
+    }
+}
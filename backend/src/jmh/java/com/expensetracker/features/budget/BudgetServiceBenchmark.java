@@ -0,0 +1,70 @@
+package com.expensetracker.features.budget;
+
+import com.expensetracker.benchmark.BenchmarkData;
+import com.expensetracker.entity.User;
+import com.expensetracker.features.category.Category;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * BudgetService.getBudgetAnalytics over {@code size} budgets for the current month.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BudgetServiceBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size;
+
+    private BudgetService budgetService;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        User user = BenchmarkData.user();
+        List<Category> categories = BenchmarkData.categories(user);
+        LocalDate now = LocalDate.now();
+
+        List<Budget> budgets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(2000));
+            // Spent between 0% and 120% of the budget so all status buckets are populated
+            BigDecimal spent = amount.multiply(BigDecimal.valueOf(random.nextInt(121))).movePointLeft(2);
+            budgets.add(Budget.builder()
+                    .user(user)
+                    .category(categories.get(i % categories.size()))
+                    .amount(amount)
+                    .spent(spent)
+                    .year(now.getYear())
+                    .month(now.getMonthValue())
+                    .build());
+        }
+
+        BudgetRepository budgetRepository = BenchmarkData.stub(BudgetRepository.class);
+        when(budgetRepository.findByUserIdAndYearAndMonth(anyLong(), anyInt(), anyInt())).thenReturn(budgets);
+
+        budgetService = new BudgetService();
+        ReflectionTestUtils.setField(budgetService, "budgetRepository", budgetRepository);
+    }
+
+    @Benchmark
+    public Map<String, Object> budgetAnalytics() {
+        return budgetService.getBudgetAnalytics(BenchmarkData.USER_ID);
+    }
+}
@@ -0,0 +1,222 @@
+package com.expensetracker.features.receipt;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ReceiptTextExtractor over a corpus of sample receipt texts, against the
+ * extraction as it was before (a regex compiled per call, a formatter array
+ * per call, a lower-cased copy of the text and one contains() per keyword).
+ * One invocation extracts every receipt in the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptTextExtractorBenchmark {
+
+    private static final List<String> CORPUS = List.of(
+            """
+            WALMART SUPERCENTER
+            Store #1234
+            123 Main Street
+            City, State 12345
+
+            Date: 12/15/2024
+            Time: 14:30:25
+
+            GROCERIES
+            Milk                    $4.99
+            Bread                   $2.49
+            Eggs                    $3.99
+            Chicken                $12.99
+
+            SUBTOTAL              $24.46
+            TAX                    $2.20
+            TOTAL                 $26.66
+
+            VISA ****1234
+            Auth: 123456
+
+            Thank you for shopping!
+            """,
+            """
+            Luigi's Pizza & Pasta
+            45 Harbour Road
+            Table 12   Server: Anna
+            2024-03-08 20:15
+
+            Margherita Pizza         14.50
+            Garlic Bread              5.00
+            Tiramisu                  7.25
+            Sparkling Water           3.00
+
+            Subtotal                 29.75
+            Service                   2.98
+            Total:                   32.73
+            """,
+            """
+            SHELL
+            Station 0043
+            05/06/24  07:42
+            Pump 7  Unleaded
+            41.235 L @ 1.879/L
+            FUEL TOTAL  $77.48
+            Card: MASTERCARD ****9981
+            """,
+            """
+            CITY PHARMACY
+            Prescription Services
+            Rx# 0099812
+            Date 21/11/2023
+            Amoxicillin 500mg          ৳ 320.00
+            Paracetamol                ৳ 45.00
+            Consultation (Doctor)      ৳ 800.00
+            TOTAL ৳ 1,165.00
+            Get well soon
+            """,
+            """
+            Dhaka Power Distribution
+            Electricity Bill - Account 10023344
+            Billing period 01/09/2024 - 30/09/2024
+            Units used: 312 kWh
+            Energy charge          2,340.50
+            Demand charge            150.00
+            VAT                      124.53
+            Amount payable         2,615.03
+            Pay before 15/10/2024
+            """,
+            """
+            amazon.com
+            Order #113-5529912-4471120
+            Ordered 2024/07/19
+            1 x USB-C Cable            $12.99
+            1 x Paperback book         $18.45
+            Shipping                    $0.00
+            Order Total:               $31.44
+            """,
+            """
+            Corner Kiosk
+            Receipt 0000441
+            Gum      1.20
+            Paper    2.50
+            Thanks
+            """);
+
+    private final ReceiptTextExtractor extractor = new ReceiptTextExtractor();
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (String text : CORPUS) {
+            blackhole.consume(extractor.extract(text));
+        }
+    }
+
+    @Benchmark
+    public void regexBaseline(Blackhole blackhole) {
+        for (String text : CORPUS) {
+            String merchant = Legacy.extractMerchantName(text);
+            blackhole.consume(merchant);
+            blackhole.consume(Legacy.extractAmount(text));
+            blackhole.consume(Legacy.extractDate(text));
+            blackhole.consume(Legacy.predictCategory(merchant, text));
+        }
+    }
+
+    /** The previous ReceiptService extraction, kept verbatim as the baseline. */
+    private static final class Legacy {
+
+        private static final Pattern AMOUNT_PATTERN = Pattern.compile(
+                "(?:USD|BDT|\\$|৳)?\\s*(\\d+(?:,\\d{3})*(?:\\.\\d{2})?)",
+                Pattern.CASE_INSENSITIVE);
+        private static final Pattern DATE_PATTERN = Pattern.compile(
+                "\\b(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}|\\d{4}[/-]\\d{1,2}[/-]\\d{1,2})\\b");
+
+        static String extractMerchantName(String ocrText) {
+            String[] lines = ocrText.split("\\n");
+            for (int i = 0; i < Math.min(5, lines.length); i++) {
+                String line = lines[i].trim();
+                if (!line.isEmpty() && line.length() > 3 && line.length() < 100) {
+                    return line;
+                }
+            }
+            return "Unknown Merchant";
+        }
+
+        static BigDecimal extractAmount(String ocrText) {
+            Pattern totalPattern = Pattern.compile(
+                    "TOTAL[:\\s]*(\\$|৳)?\\s*(\\d+(?:,\\d{3})*(?:\\.\\d{2})?)",
+                    Pattern.CASE_INSENSITIVE);
+            Matcher matcher = totalPattern.matcher(ocrText);
+            if (matcher.find()) {
+                return new BigDecimal(matcher.group(2).replace(",", ""));
+            }
+            BigDecimal maxAmount = BigDecimal.ZERO;
+            Matcher amountMatcher = AMOUNT_PATTERN.matcher(ocrText);
+            while (amountMatcher.find()) {
+                BigDecimal amount = new BigDecimal(amountMatcher.group(1).replace(",", ""));
+                if (amount.compareTo(maxAmount) > 0) {
+                    maxAmount = amount;
+                }
+            }
+            return maxAmount.compareTo(BigDecimal.ZERO) > 0 ? maxAmount : null;
+        }
+
+        static LocalDateTime extractDate(String ocrText) {
+            Matcher matcher = DATE_PATTERN.matcher(ocrText);
+            if (matcher.find()) {
+                String dateStr = matcher.group(1);
+                DateTimeFormatter[] formatters = {
+                        DateTimeFormatter.ofPattern("MM/dd/yyyy"),
+                        DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+                        DateTimeFormatter.ofPattern("yyyy-MM-dd"),
+                        DateTimeFormatter.ofPattern("M/d/yy"),
+                        DateTimeFormatter.ofPattern("d/M/yy"),
+                };
+                for (DateTimeFormatter formatter : formatters) {
+                    try {
+                        return LocalDateTime.parse(dateStr + " 00:00:00",
+                                DateTimeFormatter.ofPattern("M/d/yyyy HH:mm:ss"));
+                    } catch (Exception e) {
+                        continue;
+                    }
+                }
+            }
+            return LocalDateTime.now();
+        }
+
+        static String predictCategory(String merchantName, String ocrText) {
+            String lowerText = (merchantName + " " + ocrText).toLowerCase();
+            if (lowerText.contains("walmart") || lowerText.contains("grocery")
+                    || lowerText.contains("supermarket") || lowerText.contains("food")) {
+                return "Groceries";
+            } else if (lowerText.contains("restaurant") || lowerText.contains("cafe")
+                    || lowerText.contains("pizza") || lowerText.contains("burger")) {
+                return "Dining";
+            } else if (lowerText.contains("gas") || lowerText.contains("fuel")
+                    || lowerText.contains("shell") || lowerText.contains("exxon")) {
+                return "Transportation";
+            } else if (lowerText.contains("pharmacy") || lowerText.contains("medical")
+                    || lowerText.contains("hospital") || lowerText.contains("doctor")) {
+                return "Healthcare";
+            } else if (lowerText.contains("amazon") || lowerText.contains("shopping")
+                    || lowerText.contains("store")) {
+                return "Shopping";
+            } else if (lowerText.contains("electric") || lowerText.contains("utility")
+                    || lowerText.contains("water") || lowerText.contains("internet")) {
+                return "Utilities";
+            }
+            return "Other";
+        }
+    }
+}
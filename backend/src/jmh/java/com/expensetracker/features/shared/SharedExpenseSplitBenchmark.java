@@ -0,0 +1,83 @@
+package com.expensetracker.features.shared;
+
+import com.expensetracker.benchmark.BenchmarkData;
+import com.expensetracker.features.expense.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Split calculation for {@code size} shared expenses of four external
+ * participants each, cycling through every split type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SharedExpenseSplitBenchmark {
+
+    private static final int PARTICIPANTS = 4;
+    private static final SharedExpense.SplitType[] SPLIT_TYPES = SharedExpense.SplitType.values();
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size;
+
+    private SharedExpenseService sharedExpenseService;
+    private SharedExpenseDTO[] requests;
+    private BigDecimal[] totals;
+    private SharedExpense sharedExpense;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        requests = new SharedExpenseDTO[size];
+        totals = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            SharedExpense.SplitType splitType = SPLIT_TYPES[i % SPLIT_TYPES.length];
+            BigDecimal total = BenchmarkData.amount(random);
+            totals[i] = total;
+            requests[i] = request(splitType, total);
+        }
+
+        sharedExpense = new SharedExpense();
+        sharedExpenseService = new SharedExpenseService(
+                BenchmarkData.stub(SharedExpenseRepository.class),
+                BenchmarkData.stub(ExpenseRepository.class),
+                BenchmarkData.stub(UserRepository.class));
+    }
+
+    @Benchmark
+    public void splitShares(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(sharedExpenseService.calculateParticipantShares(requests[i], totals[i], sharedExpense));
+        }
+    }
+
+    private SharedExpenseDTO request(SharedExpense.SplitType splitType, BigDecimal total) {
+        List<SharedExpenseParticipantDTO> participants = new ArrayList<>(PARTICIPANTS);
+        BigDecimal exactShare = total.divide(BigDecimal.valueOf(PARTICIPANTS), 2, RoundingMode.DOWN);
+        for (int p = 0; p < PARTICIPANTS; p++) {
+            SharedExpenseParticipantDTO participant = new SharedExpenseParticipantDTO();
+            participant.setExternalName("Friend " + p);
+            participant.setSharePercentage(BigDecimal.valueOf(25));
+            participant.setShareUnits(p + 1);
+            participant.setShareAmount(p == 0
+                    ? total.subtract(exactShare.multiply(BigDecimal.valueOf(PARTICIPANTS - 1)))
+                    : exactShare);
+            participants.add(participant);
+        }
+        SharedExpenseDTO dto = new SharedExpenseDTO();
+        dto.setSplitType(splitType.name());
+        dto.setParticipants(participants);
+        return dto;
+    }
+}
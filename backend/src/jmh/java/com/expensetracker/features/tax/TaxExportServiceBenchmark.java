@@ -0,0 +1,59 @@
+package com.expensetracker.features.tax;
+
+import com.expensetracker.benchmark.BenchmarkData;
+import com.expensetracker.features.expense.Expense;
+import com.expensetracker.features.expense.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tax summary calculation (via previewTaxSummary) over a year of {@code size} expenses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaxExportServiceBenchmark {
+
+    private static final int TAX_YEAR = 2024;
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size;
+
+    private TaxExportService taxExportService;
+
+    @Setup
+    public void setUp() {
+        List<Expense> expenses = BenchmarkData.expenses(size, LocalDate.of(TAX_YEAR, 1, 1), 366);
+
+        UserRepository userRepository = BenchmarkData.stub(UserRepository.class);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(BenchmarkData.user()));
+
+        ExpenseRepository expenseRepository = BenchmarkData.stub(ExpenseRepository.class);
+        when(expenseRepository.findByUserAndDateBetween(any(), any(), any())).thenReturn(expenses);
+
+        taxExportService = new TaxExportService(
+                BenchmarkData.stub(TaxExportRepository.class),
+                userRepository,
+                expenseRepository,
+                new ObjectMapper());
+    }
+
+    @Benchmark
+    public Map<String, Object> taxSummary() {
+        return taxExportService.previewTaxSummary(BenchmarkData.USER_ID, TAX_YEAR, null, null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.expensetracker.security;
+
+import com.expensetracker.benchmark.BenchmarkData;
+import com.expensetracker.entity.Role;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * The per-request work of AuthTokenFilter: verify the bearer token and
+ * resolve its principal. "cached" is the current path (shared key and parser,
+ * one parse, principal cache hit); "baseline" is the previous one (key and
+ * parser rebuilt for each of two parses, principal loaded per request). The
+ * repository is stubbed, so the baseline leaves out the findByEmail round trip
+ * it used to make on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenBenchmark {
+
+    private static final String SECRET =
+            "YourSecretKeyForJwtSigningShouldBeLongEnoughToBeSecureAndNotEasilyGuessable";
+
+    private JwtUtils jwtUtils;
+    private UserDetailsServiceImpl userDetailsService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkData.user();
+        user.setRole(Role.USER);
+        UserRepository userRepository = BenchmarkData.stub(UserRepository.class);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+
+        userDetailsService = new UserDetailsServiceImpl();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userDetailsService, "principalCacheMaxSize", 10000);
+        ReflectionTestUtils.setField(userDetailsService, "principalCacheTtlSeconds", 60L);
+
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        jwtUtils.init();
+        token = jwtUtils.generateTokenFromUsername(user.getEmail());
+    }
+
+    @Benchmark
+    public void cached(Blackhole blackhole) {
+        String username = jwtUtils.getUserNameFromValidJwtToken(token);
+        blackhole.consume(userDetailsService.loadCachedUserByUsername(username));
+    }
+
+    @Benchmark
+    public void baseline(Blackhole blackhole) {
+        Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
+        String username = Jwts.parserBuilder().setSigningKey(key()).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        blackhole.consume(userDetailsService.loadUserByUsername(username));
+    }
+
+    private static Key key() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}
@@ -0,0 +1,89 @@
+package com.expensetracker.service;
+
+import com.expensetracker.benchmark.BenchmarkData;
+import com.expensetracker.features.category.CategoryRepository;
+import com.expensetracker.features.expense.DailyExpenseRollup;
+import com.expensetracker.features.expense.ExpenseRepository;
+import com.expensetracker.features.expense.ExpenseRollupService;
+import com.expensetracker.features.expense.ExpenseSummary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Report assembly in AnalyticsService over {@code size} rollup rows; the
+ * repositories are stubbed so only the in-memory folding is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AnalyticsServiceBenchmark {
+
+    private static final int YEAR = 2024;
+    private static final int MONTH = 3;
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int size;
+
+    private AnalyticsService analyticsService;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        LocalDate start = LocalDate.of(YEAR, MONTH, 1);
+        int days = start.lengthOfMonth();
+
+        List<DailyExpenseRollup> rollups = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rollups.add(DailyExpenseRollup.builder()
+                    .userId(BenchmarkData.USER_ID)
+                    .spendDate(start.plusDays(random.nextInt(days)))
+                    .categoryId((long) random.nextInt(13))
+                    .totalAmount(BenchmarkData.amount(random))
+                    .expenseCount(1 + random.nextInt(5))
+                    .build());
+        }
+
+        List<ExpenseSummary> top = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            top.add(new ExpenseSummary((long) i, "Top " + i, BenchmarkData.amount(random), start, 1L, "Food"));
+        }
+
+        ExpenseRollupService rollupService = BenchmarkData.stub(ExpenseRollupService.class);
+        when(rollupService.getRollups(anyLong(), any(), any())).thenReturn(rollups);
+
+        CategoryRepository categoryRepository = BenchmarkData.stub(CategoryRepository.class);
+        when(categoryRepository.findAllById(any())).thenReturn(BenchmarkData.categories(BenchmarkData.user()));
+
+        ExpenseRepository expenseRepository = BenchmarkData.stub(ExpenseRepository.class);
+        when(expenseRepository.findTopByAmount(anyLong(), any(), any(), any())).thenReturn(top);
+
+        analyticsService = new AnalyticsService();
+        ReflectionTestUtils.setField(analyticsService, "rollupService", rollupService);
+        ReflectionTestUtils.setField(analyticsService, "categoryRepository", categoryRepository);
+        ReflectionTestUtils.setField(analyticsService, "expenseRepository", expenseRepository);
+    }
+
+    @Benchmark
+    public Map<String, Object> monthlyReport() {
+        return analyticsService.getMonthlyReport(BenchmarkData.USER_ID, YEAR, MONTH);
+    }
+
+    @Benchmark
+    public Map<String, Object> comparison() {
+        return analyticsService.getComparison(BenchmarkData.USER_ID, YEAR, MONTH);
+    }
+}
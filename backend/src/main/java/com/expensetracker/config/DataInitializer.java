@@ -5,7 +5,7 @@ import com.expensetracker.features.expense.Expense;
 import com.expensetracker.entity.Role;
 import com.expensetracker.entity.User;
 import com.expensetracker.features.category.CategoryRepository;
-import com.expensetracker.features.expense.ExpenseRepository;
+import com.expensetracker.features.expense.ExpenseService;
 import com.expensetracker.repository.UserRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -21,7 +21,7 @@ public class DataInitializer {
     @Bean
     CommandLineRunner initDatabase(UserRepository userRepository,
                                    CategoryRepository categoryRepository,
-                                   ExpenseRepository expenseRepository,
+                                   ExpenseService expenseService,
                                    PasswordEncoder passwordEncoder) {
         return args -> {
             User guestUser;
@@ -78,7 +78,7 @@ public class DataInitializer {
                 exp1.setDate(LocalDate.now().minusDays(1));
                 exp1.setCategory(food);
                 exp1.setUser(guestUser);
-                expenseRepository.save(exp1);
+                expenseService.recordExpense(exp1);
 
                 Expense exp2 = new Expense();
                 exp2.setDescription("Uber to Work");
@@ -86,7 +86,7 @@ public class DataInitializer {
                 exp2.setDate(LocalDate.now().minusDays(2));
                 exp2.setCategory(transport);
                 exp2.setUser(guestUser);
-                expenseRepository.save(exp2);
+                expenseService.recordExpense(exp2);
 
                 Expense exp3 = new Expense();
                 exp3.setDescription("Movie Tickets");
@@ -94,7 +94,7 @@ public class DataInitializer {
                 exp3.setDate(LocalDate.now().minusDays(3));
                 exp3.setCategory(entertainment);
                 exp3.setUser(guestUser);
-                expenseRepository.save(exp3);
+                expenseService.recordExpense(exp3);
 
                 Expense exp4 = new Expense();
                 exp4.setDescription("Coffee Shop");
@@ -102,7 +102,7 @@ public class DataInitializer {
                 exp4.setDate(LocalDate.now().minusDays(3));
                 exp4.setCategory(food);
                 exp4.setUser(guestUser);
-                expenseRepository.save(exp4);
+                expenseService.recordExpense(exp4);
 
                 Expense exp5 = new Expense();
                 exp5.setDescription("New Headphones");
@@ -110,7 +110,7 @@ public class DataInitializer {
                 exp5.setDate(LocalDate.now().minusDays(5));
                 exp5.setCategory(shopping);
                 exp5.setUser(guestUser);
-                expenseRepository.save(exp5);
+                expenseService.recordExpense(exp5);
 
                 Expense exp6 = new Expense();
                 exp6.setDescription("Restaurant Dinner");
@@ -118,7 +118,7 @@ public class DataInitializer {
                 exp6.setDate(LocalDate.now().minusDays(6));
                 exp6.setCategory(food);
                 exp6.setUser(guestUser);
-                expenseRepository.save(exp6);
+                expenseService.recordExpense(exp6);
 
                 Expense exp7 = new Expense();
                 exp7.setDescription("Gas Station");
@@ -126,7 +126,7 @@ public class DataInitializer {
                 exp7.setDate(LocalDate.now().minusDays(7));
                 exp7.setCategory(transport);
                 exp7.setUser(guestUser);
-                expenseRepository.save(exp7);
+                expenseService.recordExpense(exp7);
 
                 System.out.println("Sample expenses created for guest user");
             }
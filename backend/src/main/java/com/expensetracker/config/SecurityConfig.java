@@ -1,11 +1,13 @@
 package com.expensetracker.config;
 
+import com.expensetracker.entity.Role;
 import com.expensetracker.security.AuthEntryPointJwt;
 import com.expensetracker.security.AuthTokenFilter;
 import com.expensetracker.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -61,7 +63,9 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth.requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/test/**").permitAll()
-                        .requestMatchers("/uploads/**").permitAll()
+                        // Job and pipeline stats span all users
+                        .requestMatchers(HttpMethod.GET, "/api/nudges/job", "/api/receipts/pipeline",
+                                "/api/recurring-expenses/scheduler").hasAuthority(Role.ADMIN.name())
                         .anyRequest().authenticated())
                 .oauth2Login(oauth2 -> oauth2
                         .successHandler(oauth2LoginSuccessHandler));
@@ -1,6 +1,6 @@
 package com.expensetracker.controller;
 
-import com.expensetracker.features.expense.Expense;
+import com.expensetracker.features.expense.CategorySpend;
 import com.expensetracker.features.category.CategoryRepository;
 import com.expensetracker.features.expense.ExpenseRepository;
 import com.expensetracker.service.UserDetailsImpl;
@@ -41,22 +41,25 @@ public class AIController {
         LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
         LocalDate endOfMonth = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, startOfMonth, endOfMonth);
+        List<CategorySpend> spend = expenseRepository.sumByCategory(userId, startOfMonth, endOfMonth);
 
         // Calculate category totals
-        Map<String, Double> categoryTotals = expenses.stream()
+        Map<String, Double> categoryTotals = spend.stream()
                 .collect(Collectors.groupingBy(
-                        e -> e.getCategory() != null ? e.getCategory().getName() : "Uncategorized",
-                        Collectors.summingDouble(e -> e.getAmount().doubleValue())
+                        CategorySpend::categoryNameOrDefault,
+                        Collectors.summingDouble(s -> s.total().doubleValue())
                 ));
 
-        double totalSpending = expenses.stream()
-                .mapToDouble(e -> e.getAmount().doubleValue())
+        double totalSpending = spend.stream()
+                .mapToDouble(s -> s.total().doubleValue())
+                .sum();
+        long transactionCount = spend.stream()
+                .mapToLong(CategorySpend::count)
                 .sum();
 
         Map<String, Object> insights = geminiService.getSpendingInsights(categoryTotals, totalSpending);
         insights.put("period", startOfMonth + " to " + endOfMonth);
-        insights.put("transactionCount", expenses.size());
+        insights.put("transactionCount", transactionCount);
 
         return ResponseEntity.ok(insights);
     }
@@ -98,33 +101,26 @@ public class AIController {
 
         // Get last 3 months of expenses
         LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, threeMonthsAgo, LocalDate.now());
-
-        // Calculate average per category
-        Map<String, Double> categoryAverages = expenses.stream()
-                .filter(e -> e.getCategory() != null)
-                .collect(Collectors.groupingBy(
-                        e -> e.getCategory().getName(),
-                        Collectors.averagingDouble(e -> e.getAmount().doubleValue())
-                ));
+        Map<String, Double> categoryAverages = averageByCategoryName(
+                expenseRepository.sumByCategory(userId, threeMonthsAgo, LocalDate.now()));
 
         // Find anomalies in current month
         LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-        List<Map<String, Object>> anomalies = expenseRepository.findByUserIdAndDateBetween(userId, startOfMonth, LocalDate.now())
+        List<Map<String, Object>> anomalies = expenseRepository.findSummaries(userId, startOfMonth, LocalDate.now())
                 .stream()
-                .filter(e -> e.getCategory() != null)
+                .filter(e -> e.categoryId() != null)
                 .filter(e -> {
-                    String categoryName = e.getCategory().getName();
+                    String categoryName = e.categoryName();
                     double avg = categoryAverages.getOrDefault(categoryName, 0.0);
-                    return geminiService.isAnomalous(e.getAmount().doubleValue(), categoryName, avg);
+                    return geminiService.isAnomalous(e.amount().doubleValue(), categoryName, avg);
                 })
                 .map(e -> {
                     Map<String, Object> anomaly = new HashMap<>();
-                    anomaly.put("id", e.getId());
-                    anomaly.put("description", e.getDescription());
-                    anomaly.put("amount", e.getAmount());
-                    anomaly.put("date", e.getDate());
-                    anomaly.put("category", e.getCategory().getName());
+                    anomaly.put("id", e.id());
+                    anomaly.put("description", e.description());
+                    anomaly.put("amount", e.amount());
+                    anomaly.put("date", e.date());
+                    anomaly.put("category", e.categoryName());
                     return anomaly;
                 })
                 .collect(Collectors.toList());
@@ -145,14 +141,8 @@ public class AIController {
 
         // Calculate average spending per category over last 3 months
         LocalDate threeMonthsAgo = LocalDate.now().minusMonths(3);
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, threeMonthsAgo, LocalDate.now());
-
-        Map<String, Double> avgSpending = expenses.stream()
-                .filter(e -> e.getCategory() != null)
-                .collect(Collectors.groupingBy(
-                        e -> e.getCategory().getName(),
-                        Collectors.averagingDouble(e -> e.getAmount().doubleValue())
-                ));
+        Map<String, Double> avgSpending = averageByCategoryName(
+                expenseRepository.sumByCategory(userId, threeMonthsAgo, LocalDate.now()));
 
         Map<String, Double> recommendations = geminiService.suggestBudgets(avgSpending);
 
@@ -162,4 +152,23 @@ public class AIController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Average amount per expense, keyed by category name. Categories sharing a
+     * name are combined; uncategorized spend is left out.
+     */
+    private Map<String, Double> averageByCategoryName(List<CategorySpend> spend) {
+        Map<String, double[]> sums = new HashMap<>();
+        for (CategorySpend s : spend) {
+            if (s.categoryId() == null) {
+                continue;
+            }
+            double[] acc = sums.computeIfAbsent(s.categoryName(), k -> new double[2]);
+            acc[0] += s.total().doubleValue();
+            acc[1] += s.count();
+        }
+        Map<String, Double> averages = new HashMap<>();
+        sums.forEach((name, acc) -> averages.put(name, acc[0] / acc[1]));
+        return averages;
+    }
 }
@@ -1,20 +1,20 @@
 package com.expensetracker.controller;
 
-import com.expensetracker.features.expense.Expense;
-import com.expensetracker.features.expense.ExpenseRepository;
 import com.expensetracker.service.AnalyticsService;
+import com.expensetracker.service.ExpenseExportService;
 import com.expensetracker.service.UserDetailsImpl;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -25,7 +25,7 @@ public class AnalyticsController {
     private AnalyticsService analyticsService;
 
     @Autowired
-    private ExpenseRepository expenseRepository;
+    private ExpenseExportService expenseExportService;
 
     @GetMapping("/monthly")
     public ResponseEntity<Map<String, Object>> getMonthlyReport(
@@ -69,27 +69,24 @@ public class AnalyticsController {
             @AuthenticationPrincipal UserDetailsImpl userDetails,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
             HttpServletResponse response) throws IOException {
 
         LocalDate start = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusMonths(1);
         LocalDate end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userDetails.getId(), start, end);
-
-        response.setContentType("text/csv");
+        response.setContentType("text/csv;charset=UTF-8");
         response.setHeader("Content-Disposition", "attachment; filename=expenses_" + start + "_to_" + end + ".csv");
-
-        PrintWriter writer = response.getWriter();
-        writer.println("Date,Description,Amount,Category");
-
-        for (Expense expense : expenses) {
-            writer.println(String.format("%s,\"%s\",%.2f,%s",
-                    expense.getDate(),
-                    expense.getDescription().replace("\"", "\"\""),
-                    expense.getAmount(),
-                    expense.getCategory() != null ? expense.getCategory().getName() : "Uncategorized"));
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192);
+            expenseExportService.writeCsv(userDetails.getId(), start, end, out);
+            out.finish();
+        } else {
+            expenseExportService.writeCsv(userDetails.getId(), start, end, response.getOutputStream());
         }
-
-        writer.flush();
     }
 }
@@ -8,6 +8,7 @@ import com.expensetracker.repository.UserRepository;
 import com.expensetracker.service.RecurringExpenseScheduler;
 import com.expensetracker.service.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -110,11 +111,25 @@ public class RecurringExpenseController {
     }
 
     @PostMapping("/generate-now")
-    public ResponseEntity<Map<String, Integer>> generateNow() {
+    public ResponseEntity<Map<String, Object>> generateNow() {
         int count = scheduler.generateNow();
+        if (count < 0) {
+            // Another run (nightly or manual) is still going on this node
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "running", true,
+                    "message", "Recurring expense generation is already running"));
+        }
         return ResponseEntity.ok(Map.of("generated", count));
     }
 
+    /**
+     * Last run of the recurring expense scheduler: counts, duration and throughput; admins only
+     */
+    @GetMapping("/scheduler")
+    public ResponseEntity<Map<String, Object>> getSchedulerStats() {
+        return ResponseEntity.ok(scheduler.stats());
+    }
+
     private RecurringExpenseDTO convertToDTO(RecurringExpense expense) {
         RecurringExpenseDTO dto = new RecurringExpenseDTO();
         dto.setId(expense.getId());
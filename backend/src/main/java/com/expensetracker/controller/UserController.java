@@ -6,6 +6,7 @@ import com.expensetracker.dto.UpdateProfileRequest;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.UserRepository;
 import com.expensetracker.service.UserDetailsImpl;
+import com.expensetracker.service.UserDetailsServiceImpl;
 import jakarta.validation.Valid;
 import java.util.HashMap;
 import java.util.Map;
@@ -27,6 +28,9 @@ public class UserController {
     @Autowired
     PasswordEncoder encoder;
 
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(@Valid @RequestBody UpdateProfileRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -38,6 +42,8 @@ public class UserController {
         user.setFullName(request.getFullName());
         user.setEmail(request.getEmail());
         userRepository.save(user);
+        userDetailsService.evict(userDetails.getEmail());
+        userDetailsService.evict(request.getEmail());
 
         return ResponseEntity.ok(new MessageResponse("Profile updated successfully!"));
     }
@@ -56,6 +62,7 @@ public class UserController {
 
         user.setPassword(encoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
 
         return ResponseEntity.ok(new MessageResponse("Password changed successfully!"));
     }
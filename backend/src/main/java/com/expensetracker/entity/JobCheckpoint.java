@@ -0,0 +1,49 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+/**
+ * Progress of a batch job that walks rows in id order: the run's business
+ * date and the last id fully handled. A restarted job resumes after lastId
+ * when runDate is still today, and starts over on a new day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 64)
+    private String jobName;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    // Set when the run got through every row
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /** Reset to the beginning of a run for the given day */
+    public void start(LocalDate day) {
+        runDate = day;
+        lastId = 0L;
+        completedAt = null;
+    }
+}
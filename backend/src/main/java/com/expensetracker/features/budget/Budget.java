@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 
@@ -16,6 +17,9 @@ import java.math.BigDecimal;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+// Writes only changed columns: spent is moved by in-place deltas (addToSpent), which a
+// full-row UPDATE of a budget loaded earlier, e.g. to change its amount, would overwrite
+@DynamicUpdate
 @Entity
 @Table(name = "budgets")
 public class Budget extends BaseEntity {
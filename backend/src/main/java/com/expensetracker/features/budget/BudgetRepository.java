@@ -1,8 +1,13 @@
 package com.expensetracker.features.budget;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +19,72 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
     Optional<Budget> findByUserIdAndCategoryIdAndYearAndMonth(
             Long userId, Long categoryId, Integer year, Integer month);
+
+    // All budgets between two (year, month) points inclusive, newest month first.
+    // Written as row-value bounds so the (user_id, year, month) index prefix is usable.
+    @Query("SELECT b FROM Budget b JOIN FETCH b.category "
+            + "WHERE b.user.id = :userId "
+            + "AND (b.year > :fromYear OR (b.year = :fromYear AND b.month >= :fromMonth)) "
+            + "AND (b.year < :toYear OR (b.year = :toYear AND b.month <= :toMonth)) "
+            + "ORDER BY b.year DESC, b.month DESC, b.id")
+    List<Budget> findByUserIdAndPeriodRange(@Param("userId") Long userId,
+                                            @Param("fromYear") Integer fromYear,
+                                            @Param("fromMonth") Integer fromMonth,
+                                            @Param("toYear") Integer toYear,
+                                            @Param("toMonth") Integer toMonth);
+
+    @Query("SELECT b FROM Budget b JOIN FETCH b.category c "
+            + "WHERE b.user.id = :userId AND c.id = :categoryId "
+            + "AND (b.year > :fromYear OR (b.year = :fromYear AND b.month >= :fromMonth)) "
+            + "AND (b.year < :toYear OR (b.year = :toYear AND b.month <= :toMonth)) "
+            + "ORDER BY b.year DESC, b.month DESC, b.id")
+    List<Budget> findByUserIdAndCategoryIdAndPeriodRange(@Param("userId") Long userId,
+                                                         @Param("categoryId") Long categoryId,
+                                                         @Param("fromYear") Integer fromYear,
+                                                         @Param("fromMonth") Integer fromMonth,
+                                                         @Param("toYear") Integer toYear,
+                                                         @Param("toMonth") Integer toMonth);
+
+    // Atomic in-place delta; no budget is loaded and concurrent writers never lose an update
+    @Modifying
+    @Query(value = "UPDATE budgets SET spent = spent + :delta "
+            + "WHERE user_id = :userId AND category_id = :categoryId "
+            + "AND year = :year AND month = :month", nativeQuery = true)
+    int addToSpent(@Param("userId") Long userId,
+                   @Param("categoryId") Long categoryId,
+                   @Param("year") Integer year,
+                   @Param("month") Integer month,
+                   @Param("delta") BigDecimal delta);
+
+    // Recompute spent for one budget. The sub-select is a locking read, so it waits for and
+    // counts expenses committed after the caller started, e.g. while the budget was created.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE budgets b SET b.spent = ("
+            + "SELECT COALESCE(SUM(e.amount), 0) FROM expenses e "
+            + "WHERE e.user_id = b.user_id AND e.category_id = b.category_id "
+            + "AND e.date BETWEEN :startDate AND :endDate) "
+            + "WHERE b.id = :id", nativeQuery = true)
+    int recomputeSpent(@Param("id") Long id,
+                       @Param("startDate") LocalDate startDate,
+                       @Param("endDate") LocalDate endDate);
+
+    // Recompute spent for every budget between two (year, month) points inclusive from
+    // one grouped pass over the matching expense date range. Row-value bounds, as above,
+    // so the year/month columns are compared directly rather than through an expression.
+    @Modifying
+    @Query(value = "UPDATE budgets b LEFT JOIN ("
+            + "SELECT e.user_id, e.category_id, YEAR(e.date) AS y, MONTH(e.date) AS m, SUM(e.amount) AS total "
+            + "FROM expenses e "
+            + "WHERE e.date BETWEEN :startDate AND :endDate AND e.category_id IS NOT NULL "
+            + "GROUP BY e.user_id, e.category_id, YEAR(e.date), MONTH(e.date)) s "
+            + "ON s.user_id = b.user_id AND s.category_id = b.category_id AND s.y = b.year AND s.m = b.month "
+            + "SET b.spent = COALESCE(s.total, 0) "
+            + "WHERE (b.year > :fromYear OR (b.year = :fromYear AND b.month >= :fromMonth)) "
+            + "AND (b.year < :toYear OR (b.year = :toYear AND b.month <= :toMonth))", nativeQuery = true)
+    int reconcileSpent(@Param("startDate") LocalDate startDate,
+                       @Param("endDate") LocalDate endDate,
+                       @Param("fromYear") int fromYear,
+                       @Param("fromMonth") int fromMonth,
+                       @Param("toYear") int toYear,
+                       @Param("toMonth") int toMonth);
 }
@@ -3,7 +3,8 @@ package com.expensetracker.features.budget;
 import com.expensetracker.entity.User;
 import com.expensetracker.features.category.Category;
 import com.expensetracker.features.category.CategoryRepository;
-import com.expensetracker.features.expense.Expense;
+import com.expensetracker.features.expense.CategorySpend;
+import com.expensetracker.features.expense.ExpenseSummary;
 import com.expensetracker.features.expense.ExpenseRepository;
 import com.expensetracker.repository.UserRepository;
 import java.math.BigDecimal;
@@ -67,41 +68,31 @@ public class BudgetService {
                 month
             );
 
-        Budget budget;
         if (existingBudget.isPresent()) {
-            budget = existingBudget.get();
+            // spent is kept current by expense writes; only the limit changes
+            Budget budget = existingBudget.get();
             budget.setAmount(amount);
-        } else {
-            budget = Budget.builder()
+            return budgetRepository.save(budget);
+        }
+
+        Budget budget = budgetRepository.save(
+            Budget.builder()
                 .user(user)
                 .category(category)
                 .amount(amount)
                 .year(year)
                 .month(month)
-                .spent(BigDecimal.ZERO)
-                .build();
-        }
+                .build()
+        );
 
-        // Calculate current spent amount
+        // Seed spent once the row exists: an expense written before this point
+        // found no budget to add to, so it is only counted here
         LocalDate startOfMonth = LocalDate.of(year, month, 1);
         LocalDate endOfMonth = startOfMonth.withDayOfMonth(
             startOfMonth.lengthOfMonth()
         );
-
-        BigDecimal spent = expenseRepository
-            .findByUserIdAndDateBetween(userId, startOfMonth, endOfMonth)
-            .stream()
-            .filter(
-                e ->
-                    e.getCategory() != null &&
-                    e.getCategory().getId().equals(categoryId)
-            )
-            .map(Expense::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        budget.setSpent(spent);
-
-        return budgetRepository.save(budget);
+        budgetRepository.recomputeSpent(budget.getId(), startOfMonth, endOfMonth);
+        return budgetRepository.findById(budget.getId()).orElseThrow();
     }
 
     @Transactional
@@ -117,20 +108,20 @@ public class BudgetService {
             startOfMonth.lengthOfMonth()
         );
 
+        // One grouped query for the month instead of one scan per budget
+        Map<Long, BigDecimal> spentByCategory = expenseRepository
+            .sumByCategory(userId, startOfMonth, endOfMonth)
+            .stream()
+            .filter(s -> s.categoryId() != null)
+            .collect(
+                Collectors.toMap(CategorySpend::categoryId, CategorySpend::total)
+            );
+
         for (Budget budget : budgets) {
-            BigDecimal spent = expenseRepository
-                .findByUserIdAndDateBetween(userId, startOfMonth, endOfMonth)
-                .stream()
-                .filter(
-                    e ->
-                        e.getCategory() != null &&
-                        e
-                            .getCategory()
-                            .getId()
-                            .equals(budget.getCategory().getId())
-                )
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal spent = spentByCategory.getOrDefault(
+                budget.getCategory().getId(),
+                BigDecimal.ZERO
+            );
 
             budget.setSpent(spent);
             budgetRepository.save(budget);
@@ -154,37 +145,31 @@ public class BudgetService {
         Long categoryId,
         int months
     ) {
-        LocalDate now = LocalDate.now();
-        List<Budget> history = new ArrayList<>();
-
-        for (int i = 0; i < months; i++) {
-            YearMonth yearMonth = YearMonth.from(now.minusMonths(i));
-            int year = yearMonth.getYear();
-            int month = yearMonth.getMonthValue();
-
-            List<Budget> monthBudgets;
-            if (categoryId != null) {
-                monthBudgets = budgetRepository
-                    .findByUserIdAndCategoryIdAndYearAndMonth(
-                        userId,
-                        categoryId,
-                        year,
-                        month
-                    )
-                    .map(Collections::singletonList)
-                    .orElse(Collections.emptyList());
-            } else {
-                monthBudgets = budgetRepository.findByUserIdAndYearAndMonth(
-                    userId,
-                    year,
-                    month
-                );
-            }
-
-            history.addAll(monthBudgets);
+        if (months <= 0) {
+            return new ArrayList<>();
         }
 
-        return history;
+        // One range query for the whole window instead of one per month
+        YearMonth to = YearMonth.now();
+        YearMonth from = to.minusMonths(months - 1L);
+
+        if (categoryId != null) {
+            return budgetRepository.findByUserIdAndCategoryIdAndPeriodRange(
+                userId,
+                categoryId,
+                from.getYear(),
+                from.getMonthValue(),
+                to.getYear(),
+                to.getMonthValue()
+            );
+        }
+        return budgetRepository.findByUserIdAndPeriodRange(
+            userId,
+            from.getYear(),
+            from.getMonthValue(),
+            to.getYear(),
+            to.getMonthValue()
+        );
     }
 
     public Map<String, Object> getBudgetAnalytics(Long userId) {
@@ -266,19 +251,30 @@ public class BudgetService {
         int year,
         int month
     ) {
-        List<Budget> currentBudgets =
-            budgetRepository.findByUserIdAndYearAndMonth(userId, year, month);
-
-        // Get previous month
         YearMonth currentMonth = YearMonth.of(year, month);
         YearMonth previousMonth = currentMonth.minusMonths(1);
 
-        List<Budget> previousBudgets =
-            budgetRepository.findByUserIdAndYearAndMonth(
-                userId,
-                previousMonth.getYear(),
-                previousMonth.getMonthValue()
-            );
+        // Both months in one query, newest first; index the previous month by category
+        List<Budget> budgets = budgetRepository.findByUserIdAndPeriodRange(
+            userId,
+            previousMonth.getYear(),
+            previousMonth.getMonthValue(),
+            year,
+            month
+        );
+
+        List<Budget> currentBudgets = new ArrayList<>();
+        Map<Long, Budget> previousByCategory = new HashMap<>();
+        for (Budget budget : budgets) {
+            if (budget.getYear() == year && budget.getMonth() == month) {
+                currentBudgets.add(budget);
+            } else {
+                previousByCategory.putIfAbsent(
+                    budget.getCategory().getId(),
+                    budget
+                );
+            }
+        }
 
         Map<String, Object> comparison = new HashMap<>();
         List<Map<String, Object>> categoryComparisons = new ArrayList<>();
@@ -291,18 +287,9 @@ public class BudgetService {
             comp.put("currentSpent", current.getSpent());
             comp.put("currentPercentage", current.getPercentageUsed());
 
-            Optional<Budget> prevBudget = previousBudgets
-                .stream()
-                .filter(b ->
-                    b
-                        .getCategory()
-                        .getId()
-                        .equals(current.getCategory().getId())
-                )
-                .findFirst();
-
-            if (prevBudget.isPresent()) {
-                Budget prev = prevBudget.get();
+            Budget prev = previousByCategory.get(current.getCategory().getId());
+
+            if (prev != null) {
                 comp.put("previousAmount", prev.getAmount());
                 comp.put("previousSpent", prev.getSpent());
                 comp.put("previousPercentage", prev.getPercentageUsed());
@@ -461,25 +448,22 @@ public class BudgetService {
             startOfMonth.lengthOfMonth()
         );
 
-        List<Expense> expenses = expenseRepository
-            .findByUserIdAndDateBetween(userId, startOfMonth, endOfMonth)
-            .stream()
-            .filter(
-                e ->
-                    e.getCategory() != null &&
-                    e.getCategory().getId().equals(budget.getCategory().getId())
-            )
-            .sorted((a, b) -> b.getDate().compareTo(a.getDate()))
-            .collect(Collectors.toList());
+        List<ExpenseSummary> expenses =
+            expenseRepository.findSummariesByCategory(
+                userId,
+                budget.getCategory().getId(),
+                startOfMonth,
+                endOfMonth
+            );
 
         List<Map<String, Object>> expenseList = expenses
             .stream()
             .map(e -> {
                 Map<String, Object> exp = new HashMap<>();
-                exp.put("id", e.getId());
-                exp.put("description", e.getDescription());
-                exp.put("amount", e.getAmount());
-                exp.put("date", e.getDate().toString());
+                exp.put("id", e.id());
+                exp.put("description", e.description());
+                exp.put("amount", e.amount());
+                exp.put("date", e.date().toString());
                 return exp;
             })
             .collect(Collectors.toList());
@@ -0,0 +1,57 @@
+package com.expensetracker.features.budget;
+
+import com.expensetracker.service.SchedulerLockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Budget.spent is maintained incrementally by expense writes. This job is the
+ * safety net: it recomputes spent for recent months in one grouped statement,
+ * correcting any drift the incremental path can miss.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetSpentReconciler {
+
+    static final String JOB_NAME = "budget-reconcile";
+
+    private final BudgetRepository budgetRepository;
+    private final SchedulerLockService schedulerLock;
+
+    @Value("${app.budget.reconcile-months:3}")
+    private int reconcileMonths;
+
+    /**
+     * Runs daily at 1:30 AM, after the recurring expense scheduler
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    @Transactional
+    public void reconcile() {
+        YearMonth to = YearMonth.now();
+        YearMonth from = to.minusMonths(Math.max(reconcileMonths, 1) - 1L);
+        // One node is enough; the lease commits on its own, outside this transaction
+        schedulerLock.runLocked(JOB_NAME, () -> reconcile(from, to));
+    }
+
+    @Transactional
+    public int reconcile(YearMonth from, YearMonth to) {
+        long started = System.currentTimeMillis();
+        LocalDate startDate = from.atDay(1);
+        LocalDate endDate = to.atEndOfMonth();
+
+        int updated = budgetRepository.reconcileSpent(startDate, endDate,
+                from.getYear(), from.getMonthValue(), to.getYear(), to.getMonthValue());
+
+        log.info("Reconciled spent for {} budgets from {} to {} in {} ms",
+                updated, from, to, System.currentTimeMillis() - started);
+        return updated;
+    }
+}
@@ -0,0 +1,14 @@
+package com.expensetracker.features.expense;
+
+import java.math.BigDecimal;
+
+/**
+ * Spend grouped by category. {@code categoryId} and {@code categoryName} are
+ * null for uncategorized expenses.
+ */
+public record CategorySpend(Long categoryId, String categoryName, BigDecimal total, Long count) {
+
+    public String categoryNameOrDefault() {
+        return categoryName != null ? categoryName : "Uncategorized";
+    }
+}
@@ -0,0 +1,59 @@
+package com.expensetracker.features.expense;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated spend for one user, day and category.
+ * Rows are written through {@link ExpenseRollupService}, never directly.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "daily_expense_rollups")
+@IdClass(DailyExpenseRollup.Key.class)
+public class DailyExpenseRollup {
+
+    /** Category key used for expenses without a category. */
+    public static final long UNCATEGORIZED = 0L;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "spend_date")
+    private LocalDate spendDate;
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "expense_count", nullable = false)
+    private Integer expenseCount;
+
+    public boolean isUncategorized() {
+        return categoryId == null || categoryId == UNCATEGORIZED;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate spendDate;
+        private Long categoryId;
+    }
+}
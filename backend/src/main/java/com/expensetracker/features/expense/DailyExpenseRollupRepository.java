@@ -0,0 +1,36 @@
+package com.expensetracker.features.expense;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyExpenseRollupRepository extends JpaRepository<DailyExpenseRollup, DailyExpenseRollup.Key> {
+
+    List<DailyExpenseRollup> findByUserIdAndSpendDateBetween(Long userId, LocalDate startDate, LocalDate endDate);
+
+    // Atomic add-or-insert so concurrent writers never lose a delta
+    @Modifying
+    @Query(value = "INSERT INTO daily_expense_rollups (user_id, spend_date, category_id, total_amount, expense_count) "
+            + "VALUES (:userId, :spendDate, :categoryId, :amount, :count) "
+            + "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), "
+            + "expense_count = expense_count + VALUES(expense_count)", nativeQuery = true)
+    int upsertDelta(@Param("userId") Long userId,
+                    @Param("spendDate") LocalDate spendDate,
+                    @Param("categoryId") Long categoryId,
+                    @Param("amount") BigDecimal amount,
+                    @Param("count") int count);
+
+    @Modifying
+    @Query("DELETE FROM DailyExpenseRollup r WHERE r.userId = :userId AND r.spendDate = :spendDate "
+            + "AND r.categoryId = :categoryId AND r.expenseCount <= 0")
+    int deleteIfEmpty(@Param("userId") Long userId,
+                      @Param("spendDate") LocalDate spendDate,
+                      @Param("categoryId") Long categoryId);
+}
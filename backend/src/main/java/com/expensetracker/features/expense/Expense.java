@@ -43,4 +43,11 @@ public class Expense extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+
+    // Set on expenses generated by the recurring expense scheduler: the occurrence this expense is
+    @Column(name = "recurring_expense_id")
+    private Long recurringExpenseId;
+
+    @Column(name = "recurring_due_date")
+    private LocalDate recurringDueDate;
 }
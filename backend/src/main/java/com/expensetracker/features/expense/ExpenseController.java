@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/api/expenses")
 public class ExpenseController {
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Autowired
     private ExpenseService expenseService;
 
@@ -20,6 +22,15 @@ public class ExpenseController {
         return expenseService.getAllExpenses(userDetails.getId(), pageable);
     }
 
+    @GetMapping("/cursor")
+    public ExpenseCursorPage getExpensesByCursor(Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return expenseService.getExpensesAfter(userDetails.getId(), cursor, pageSize);
+    }
+
     @PostMapping
     public ExpenseDTO createExpense(Authentication authentication, @RequestBody ExpenseDTO expenseDTO) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
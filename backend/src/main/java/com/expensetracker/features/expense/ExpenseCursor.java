@@ -0,0 +1,36 @@
+package com.expensetracker.features.expense;
+
+import com.expensetracker.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a user's expense list ordered by (date desc, id desc).
+ * Clients only see the opaque token produced by {@link #encode()}.
+ */
+public record ExpenseCursor(LocalDate date, Long id) {
+
+    public static ExpenseCursor after(ExpenseDTO expense) {
+        return new ExpenseCursor(expense.getDate(), expense.getId());
+    }
+
+    public String encode() {
+        String raw = date + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new ExpenseCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.expensetracker.features.expense;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ExpenseCursorPage {
+    private List<ExpenseDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
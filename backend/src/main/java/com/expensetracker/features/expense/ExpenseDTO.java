@@ -1,11 +1,15 @@
 package com.expensetracker.features.expense;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ExpenseDTO {
     private Long id;
     private String description;
@@ -2,16 +2,53 @@ package com.expensetracker.features.expense;
 
 import com.expensetracker.entity.User;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
         Page<Expense> findByUserId(Long userId, Pageable pageable);
 
+        // Listing page as DTOs in one select (plus the count); no entities or proxies are loaded
+        @Query(value = "SELECT new com.expensetracker.features.expense.ExpenseDTO("
+                        + "e.id, e.description, e.amount, e.date, c.id, c.name, w.id, w.name) "
+                        + "FROM Expense e LEFT JOIN e.category c LEFT JOIN e.wallet w "
+                        + "WHERE e.user.id = :userId",
+                        countQuery = "SELECT COUNT(e) FROM Expense e WHERE e.user.id = :userId")
+        Page<ExpenseDTO> findDtoPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+        // Keyset pages in (date desc, id desc) order; no count query is issued
+        @Query("SELECT new com.expensetracker.features.expense.ExpenseDTO("
+                        + "e.id, e.description, e.amount, e.date, c.id, c.name, w.id, w.name) "
+                        + "FROM Expense e LEFT JOIN e.category c LEFT JOIN e.wallet w "
+                        + "WHERE e.user.id = :userId "
+                        + "ORDER BY e.date DESC, e.id DESC")
+        List<ExpenseDTO> findFirstKeysetPage(@Param("userId") Long userId, Pageable pageable);
+
+        @Query("SELECT new com.expensetracker.features.expense.ExpenseDTO("
+                        + "e.id, e.description, e.amount, e.date, c.id, c.name, w.id, w.name) "
+                        + "FROM Expense e LEFT JOIN e.category c LEFT JOIN e.wallet w "
+                        + "WHERE e.user.id = :userId "
+                        + "AND (e.date < :date OR (e.date = :date AND e.id < :id)) "
+                        + "ORDER BY e.date DESC, e.id DESC")
+        List<ExpenseDTO> findKeysetPageBefore(
+                        @Param("userId") Long userId,
+                        @Param("date") LocalDate date,
+                        @Param("id") Long id,
+                        Pageable pageable);
+
+        // Same page as entities, with category and wallet fetched in the main select
+        @EntityGraph(attributePaths = { "category", "wallet" })
+        Page<Expense> findWithCategoryAndWalletByUserId(Long userId, Pageable pageable);
+
         List<Expense> findByUserIdAndDateBetween(
                         Long userId,
                         LocalDate startDate,
@@ -26,4 +63,78 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
         List<Expense> findByUserAndDateAfter(User user, LocalDate date);
 
         List<Expense> findByUserAndDateBetween(User user, LocalDate startDate, LocalDate endDate);
+
+        // Aggregations computed in the database; no Expense entities are hydrated
+
+        @Query("SELECT new com.expensetracker.features.expense.CategorySpend(c.id, c.name, SUM(e.amount), COUNT(e)) "
+                        + "FROM Expense e LEFT JOIN e.category c "
+                        + "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate "
+                        + "GROUP BY c.id, c.name")
+        List<CategorySpend> sumByCategory(
+                        @Param("userId") Long userId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        // Pass PageRequest.of(0, n) to get the top n by amount
+        @Query("SELECT new com.expensetracker.features.expense.ExpenseSummary(e.id, e.description, e.amount, e.date, c.id, c.name) "
+                        + "FROM Expense e LEFT JOIN e.category c "
+                        + "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate "
+                        + "ORDER BY e.amount DESC, e.id DESC")
+        List<ExpenseSummary> findTopByAmount(
+                        @Param("userId") Long userId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        Pageable pageable);
+
+        @Query("SELECT new com.expensetracker.features.expense.ExpenseSummary(e.id, e.description, e.amount, e.date, c.id, c.name) "
+                        + "FROM Expense e LEFT JOIN e.category c "
+                        + "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate "
+                        + "ORDER BY e.date DESC, e.id DESC")
+        List<ExpenseSummary> findSummaries(
+                        @Param("userId") Long userId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        @Query("SELECT new com.expensetracker.features.expense.ExpenseSummary(e.id, e.description, e.amount, e.date, c.id, c.name) "
+                        + "FROM Expense e JOIN e.category c "
+                        + "WHERE e.user.id = :userId AND c.id = :categoryId AND e.date BETWEEN :startDate AND :endDate "
+                        + "ORDER BY e.date DESC, e.id DESC")
+        List<ExpenseSummary> findSummariesByCategory(
+                        @Param("userId") Long userId,
+                        @Param("categoryId") Long categoryId,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        // Keyset page in (date, id) order: rows strictly after the given cursor.
+        // Start from (startDate, 0) to read the first page: ids are positive, so that
+        // includes every row on startDate and nothing before it.
+        @Query("SELECT new com.expensetracker.features.expense.ExpenseRow(e.id, e.date, e.description, e.amount, c.name) "
+                        + "FROM Expense e LEFT JOIN e.category c "
+                        + "WHERE e.user.id = :userId AND e.date <= :endDate "
+                        + "AND (e.date > :afterDate OR (e.date = :afterDate AND e.id > :afterId)) "
+                        + "ORDER BY e.date, e.id")
+        List<ExpenseRow> findRowsAfter(
+                        @Param("userId") Long userId,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("afterDate") LocalDate afterDate,
+                        @Param("afterId") Long afterId,
+                        Pageable pageable);
+
+        // Occurrences of the given recurring expenses already generated on or after fromDate
+        @Query("SELECT new com.expensetracker.features.expense.RecurringOccurrence(e.recurringExpenseId, e.recurringDueDate) "
+                        + "FROM Expense e "
+                        + "WHERE e.recurringExpenseId IN :recurringExpenseIds AND e.recurringDueDate >= :fromDate")
+        List<RecurringOccurrence> findRecurringOccurrences(
+                        @Param("recurringExpenseIds") Collection<Long> recurringExpenseIds,
+                        @Param("fromDate") LocalDate fromDate);
+
+        // Same, restricted to the rows one batch insert stamped with createdAt
+        @Query("SELECT new com.expensetracker.features.expense.RecurringOccurrence(e.recurringExpenseId, e.recurringDueDate) "
+                        + "FROM Expense e "
+                        + "WHERE e.recurringExpenseId IN :recurringExpenseIds AND e.recurringDueDate >= :fromDate "
+                        + "AND e.createdAt = :createdAt")
+        List<RecurringOccurrence> findRecurringOccurrencesCreatedAt(
+                        @Param("recurringExpenseIds") Collection<Long> recurringExpenseIds,
+                        @Param("fromDate") LocalDate fromDate,
+                        @Param("createdAt") LocalDateTime createdAt);
 }
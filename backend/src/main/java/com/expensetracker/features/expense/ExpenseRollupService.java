@@ -0,0 +1,60 @@
+package com.expensetracker.features.expense;
+
+import com.expensetracker.features.budget.BudgetRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps the aggregates derived from expenses in step with the expenses table:
+ * the daily_expense_rollups rows and the matching Budget.spent.
+ * Every call joins the caller's transaction, so a rolled back expense write
+ * also rolls back its deltas.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseRollupService {
+
+    private final DailyExpenseRollupRepository rollupRepository;
+    private final BudgetRepository budgetRepository;
+
+    @Transactional
+    public void recordAdded(Expense expense) {
+        record(expense.getUser().getId(), expense.getDate(), categoryIdOf(expense), expense.getAmount(), 1);
+    }
+
+    @Transactional
+    public void recordRemoved(Expense expense) {
+        record(expense.getUser().getId(), expense.getDate(), categoryIdOf(expense), expense.getAmount().negate(), -1);
+    }
+
+    /**
+     * Apply an amount/count delta to a single (user, date, category) bucket and
+     * to the budget for that category and month, if there is one.
+     * A null category is stored under {@link DailyExpenseRollup#UNCATEGORIZED}.
+     */
+    @Transactional
+    public void record(Long userId, LocalDate date, Long categoryId, BigDecimal amount, int count) {
+        long categoryKey = categoryId != null ? categoryId : DailyExpenseRollup.UNCATEGORIZED;
+        rollupRepository.upsertDelta(userId, date, categoryKey, amount, count);
+        if (count < 0) {
+            rollupRepository.deleteIfEmpty(userId, date, categoryKey);
+        }
+        if (categoryId != null) {
+            budgetRepository.addToSpent(userId, categoryId, date.getYear(), date.getMonthValue(), amount);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailyExpenseRollup> getRollups(Long userId, LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.findByUserIdAndSpendDateBetween(userId, startDate, endDate);
+    }
+
+    private Long categoryIdOf(Expense expense) {
+        return expense.getCategory() != null ? expense.getCategory().getId() : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.expensetracker.features.expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat expense row for exports. Carries the id so callers can page with a
+ * (date, id) keyset cursor.
+ */
+public record ExpenseRow(
+        Long id,
+        LocalDate date,
+        String description,
+        BigDecimal amount,
+        String categoryName) {
+}
@@ -6,9 +6,12 @@ import com.expensetracker.features.category.CategoryRepository;
 import com.expensetracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class ExpenseService {
     @Autowired
@@ -23,8 +26,28 @@ public class ExpenseService {
     @Autowired
     private com.expensetracker.features.wallet.WalletRepository walletRepository;
 
+    @Autowired
+    private ExpenseRollupService rollupService;
+
     public Page<ExpenseDTO> getAllExpenses(Long userId, Pageable pageable) {
-        return expenseRepository.findByUserId(userId, pageable).map(this::convertToDTO);
+        return expenseRepository.findDtoPageByUserId(userId, pageable);
+    }
+
+    public ExpenseCursorPage getExpensesAfter(Long userId, String cursor, int size) {
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ExpenseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = expenseRepository.findFirstKeysetPage(userId, limit);
+        } else {
+            ExpenseCursor position = ExpenseCursor.decode(cursor);
+            rows = expenseRepository.findKeysetPageBefore(userId, position.date(), position.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<ExpenseDTO> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? ExpenseCursor.after(content.get(size - 1)).encode() : null;
+        return new ExpenseCursorPage(content, nextCursor, hasNext);
     }
 
     @org.springframework.transaction.annotation.Transactional
@@ -57,10 +80,21 @@ public class ExpenseService {
         expense.setWallet(wallet);
         expense.setUser(user);
 
-        Expense savedExpense = expenseRepository.save(expense);
+        Expense savedExpense = recordExpense(expense);
         return convertToDTO(savedExpense);
     }
 
+    /**
+     * Persist a new expense and update the derived aggregates in the same transaction.
+     * Every code path that inserts expenses (scheduler, templates, receipts) goes through here.
+     */
+    @org.springframework.transaction.annotation.Transactional
+    public Expense recordExpense(Expense expense) {
+        Expense savedExpense = expenseRepository.save(expense);
+        rollupService.recordAdded(savedExpense);
+        return savedExpense;
+    }
+
     @org.springframework.transaction.annotation.Transactional
     public ExpenseDTO updateExpense(Long id, Long userId, ExpenseDTO expenseDTO) {
         Expense expense = expenseRepository.findById(id)
@@ -70,6 +104,9 @@ public class ExpenseService {
             throw new RuntimeException("Unauthorized access to expense");
         }
 
+        // Take the old bucket out of the rollup before the fields change
+        rollupService.recordRemoved(expense);
+
         // Revert old wallet balance if it exists
         if (expense.getWallet() != null) {
             com.expensetracker.features.wallet.Wallet oldWallet = expense.getWallet();
@@ -104,6 +141,7 @@ public class ExpenseService {
         expense.setWallet(newWallet);
 
         Expense savedExpense = expenseRepository.save(expense);
+        rollupService.recordAdded(savedExpense);
         return convertToDTO(savedExpense);
     }
 
@@ -123,6 +161,7 @@ public class ExpenseService {
             walletRepository.save(wallet);
         }
 
+        rollupService.recordRemoved(expense);
         expenseRepository.delete(expense);
     }
 
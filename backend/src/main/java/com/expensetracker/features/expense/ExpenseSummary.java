@@ -0,0 +1,20 @@
+package com.expensetracker.features.expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only expense row with the category name already joined in.
+ */
+public record ExpenseSummary(
+        Long id,
+        String description,
+        BigDecimal amount,
+        LocalDate date,
+        Long categoryId,
+        String categoryName) {
+
+    public String categoryNameOrDefault() {
+        return categoryName != null ? categoryName : "Uncategorized";
+    }
+}
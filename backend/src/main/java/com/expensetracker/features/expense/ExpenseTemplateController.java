@@ -23,7 +23,7 @@ public class ExpenseTemplateController {
     private ExpenseTemplateRepository templateRepository;
 
     @Autowired
-    private ExpenseRepository expenseRepository;
+    private ExpenseService expenseService;
 
     @Autowired
     private UserRepository userRepository;
@@ -88,7 +88,7 @@ public class ExpenseTemplateController {
                 .date(LocalDate.now())
                 .build();
 
-        expense = expenseRepository.save(expense);
+        expense = expenseService.recordExpense(expense);
 
         // Increment usage count
         template.incrementUsage();
@@ -0,0 +1,9 @@
+package com.expensetracker.features.expense;
+
+import java.time.LocalDate;
+
+/**
+ * One due date of a recurring expense; at most one expense exists per occurrence.
+ */
+public record RecurringOccurrence(Long recurringExpenseId, LocalDate dueDate) {
+}
@@ -59,6 +59,17 @@ public class Nudge {
     @Column(columnDefinition = "TEXT")
     private String metadata;
 
+    // type:subject:period, unique per user; regenerating the same nudge updates it in place
+    @JsonIgnore
+    @Column(length = 128)
+    private String fingerprint;
+
+    // Dismissed nudges are kept (hidden) so regeneration does not bring them back
+    @JsonIgnore
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean dismissed = false;
+
     public enum NudgeType {
         BUDGET_ALERT,
         UNUSUAL_SPENDING,
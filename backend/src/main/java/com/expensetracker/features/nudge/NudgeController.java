@@ -3,6 +3,7 @@ package com.expensetracker.features.nudge;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.UserRepository;
 import com.expensetracker.service.UserDetailsImpl;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 public class NudgeController {
 
     private final NudgeService nudgeService;
+    private final NudgeGenerationJob generationJob;
     private final UserRepository userRepository;
 
     @GetMapping
@@ -142,4 +144,40 @@ public class NudgeController {
             );
         }
     }
+
+    /**
+     * Thresholds the current user's nudges are generated with
+     */
+    @GetMapping("/thresholds")
+    public ResponseEntity<Map<String, BigDecimal>> getThresholds(
+        @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        User user = userRepository
+            .findById(userDetails.getId())
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(nudgeService.getThresholds(user));
+    }
+
+    /**
+     * Override thresholds for the current user, e.g. {"budget-alert.high": 15000};
+     * null restores the default
+     */
+    @PutMapping("/thresholds")
+    public ResponseEntity<Map<String, BigDecimal>> updateThresholds(
+        @AuthenticationPrincipal UserDetailsImpl userDetails,
+        @RequestBody Map<String, BigDecimal> thresholds
+    ) {
+        User user = userRepository
+            .findById(userDetails.getId())
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(nudgeService.updateThresholds(user, thresholds));
+    }
+
+    /**
+     * Progress and timings of the nightly nudge generation job; admins only
+     */
+    @GetMapping("/job")
+    public ResponseEntity<Map<String, Object>> getGenerationJobStats() {
+        return ResponseEntity.ok(generationJob.stats());
+    }
 }
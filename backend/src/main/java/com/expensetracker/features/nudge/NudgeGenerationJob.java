@@ -0,0 +1,209 @@
+package com.expensetracker.features.nudge;
+
+import com.expensetracker.entity.JobCheckpoint;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.JobCheckpointRepository;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.SchedulerLockService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly nudge generation for every user, so reads serve precomputed nudges.
+ * Users are walked in id order, one chunk at a time; the users of a chunk are
+ * evaluated in parallel on a fixed pool, and the last id of the chunk is
+ * checkpointed once all of them are done. A restart on the same day resumes
+ * after the checkpoint. The interrupted chunk is evaluated again, which
+ * only refreshes its nudges since generation upserts by fingerprint. On
+ * several nodes, the run holds the job's lease from SchedulerLockService,
+ * so only one node generates at a time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NudgeGenerationJob {
+
+    static final String JOB_NAME = "nudge-generation";
+
+    private final UserRepository userRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final NudgeService nudgeService;
+    private final NudgeMetrics metrics;
+    private final SchedulerLockService schedulerLock;
+
+    @Value("${app.nudges.job.workers:4}")
+    private int workers;
+
+    @Value("${app.nudges.job.chunk-size:100}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        // A chunk is handed over at once and always fits; past that the caller runs it
+        executor = new ThreadPoolExecutor(
+            workers,
+            workers,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(chunkSize),
+            runnable -> {
+                Thread thread = new Thread(runnable, "nudge-job-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // The checkpoint only covers finished chunks, so the next run picks up the rest
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs daily at 2 AM, after the recurring expense scheduler and the
+     * budget reconciliation, so nudges see the day's generated expenses
+     */
+    @Scheduled(cron = "${app.nudges.job.cron:0 0 2 * * ?}")
+    public void run() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * Generate nudges for every user not yet done today. Returns the number
+     * of users evaluated by this call, or -1 if a run is already going here
+     * or on another node.
+     */
+    public int run(LocalDate day) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Nudge generation already running; skipped");
+            return -1;
+        }
+        try {
+            if (!schedulerLock.tryLock(JOB_NAME)) {
+                log.info("Nudge generation is running on another node; skipped");
+                return -1;
+            }
+            try {
+                return runChunks(day);
+            } finally {
+                schedulerLock.unlock(JOB_NAME);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running.get());
+        stats.put("workers", workers);
+        stats.put("chunkSize", chunkSize);
+        checkpointRepository.findById(JOB_NAME).ifPresent(checkpoint -> {
+            stats.put("runDate", checkpoint.getRunDate().toString());
+            stats.put("lastUserId", checkpoint.getLastId());
+            stats.put("completedAt", checkpoint.getCompletedAt() != null ? checkpoint.getCompletedAt().toString() : null);
+        });
+        stats.putAll(metrics.snapshot());
+        return stats;
+    }
+
+    private int runChunks(LocalDate day) {
+        JobCheckpoint checkpoint = checkpointRepository
+            .findById(JOB_NAME)
+            .orElseGet(() -> JobCheckpoint.builder().jobName(JOB_NAME).build());
+        if (!day.equals(checkpoint.getRunDate())) {
+            checkpoint.start(day);
+        } else if (checkpoint.getCompletedAt() != null) {
+            log.info("Nudge generation for {} already completed", day);
+            return 0;
+        } else {
+            log.info("Resuming nudge generation for {} after user {}", day, checkpoint.getLastId());
+        }
+
+        long started = System.currentTimeMillis();
+        int evaluated = 0;
+        boolean completed = false;
+        try {
+            while (true) {
+                List<Long> ids = userRepository.findIdsAfter(checkpoint.getLastId(), PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    completed = true;
+                    break;
+                }
+
+                List<Callable<Void>> tasks = new ArrayList<>(ids.size());
+                for (User user : userRepository.findAllById(ids)) {
+                    tasks.add(() -> {
+                        evaluate(user);
+                        return null;
+                    });
+                }
+                // Per-user failures are handled in evaluate(); this only returns once all are done
+                executor.invokeAll(tasks);
+                evaluated += tasks.size();
+
+                checkpoint.setLastId(ids.get(ids.size() - 1));
+                checkpoint = checkpointRepository.save(checkpoint);
+                if (!schedulerLock.extend(JOB_NAME)) {
+                    // Another node took over and resumes from the checkpoint
+                    break;
+                }
+            }
+            if (completed) {
+                checkpoint.setCompletedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Nudge generation interrupted after user {}", checkpoint.getLastId());
+        } finally {
+            long elapsed = System.currentTimeMillis() - started;
+            metrics.runFinished(evaluated, elapsed, completed);
+            log.info(
+                "Nudge generation for {}: {} users in {} ms ({} users/s){}",
+                day,
+                evaluated,
+                elapsed,
+                elapsed > 0 ? String.format("%.1f", evaluated * 1000.0 / elapsed) : "-",
+                completed ? "" : ", not completed"
+            );
+        }
+        return evaluated;
+    }
+
+    private void evaluate(User user) {
+        try {
+            nudgeService.generateNudges(user);
+            metrics.userEvaluated();
+        } catch (Exception e) {
+            metrics.userFailed();
+            log.error("Nudge generation failed for user {}", user.getId(), e);
+        }
+    }
+}
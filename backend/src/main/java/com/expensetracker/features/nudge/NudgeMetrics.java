@@ -0,0 +1,82 @@
+package com.expensetracker.features.nudge;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process timings for nudge generation: count, total and max duration per
+ * rule (plus loading the snapshot and saving the nudges) since startup,
+ * users evaluated and failed, and the throughput of the last batch run.
+ * Written from job workers without locking.
+ */
+@Component
+public class NudgeMetrics {
+
+    private final Map<String, Timer> rules = new ConcurrentSkipListMap<>();
+    private final LongAdder users = new LongAdder();
+    private final LongAdder failedUsers = new LongAdder();
+    private final Map<String, Object> lastRun = new ConcurrentHashMap<>();
+
+    /** Record the time since startedNanos against a rule */
+    public void record(String rule, long startedNanos) {
+        rules.computeIfAbsent(rule, name -> new Timer()).add(System.nanoTime() - startedNanos);
+    }
+
+    public void userEvaluated() {
+        users.increment();
+    }
+
+    public void userFailed() {
+        failedUsers.increment();
+    }
+
+    public void runFinished(int evaluated, long elapsedMillis, boolean completed) {
+        lastRun.put("users", evaluated);
+        lastRun.put("elapsedMs", elapsedMillis);
+        lastRun.put("usersPerSecond", elapsedMillis > 0 ? evaluated * 1000.0 / elapsedMillis : 0.0);
+        lastRun.put("completed", completed);
+        lastRun.put("finishedAt", LocalDateTime.now().toString());
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> timings = new LinkedHashMap<>();
+        rules.forEach((rule, timer) -> timings.put(rule, timer.snapshot()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("usersEvaluated", users.sum());
+        snapshot.put("usersFailed", failedUsers.sum());
+        snapshot.put("lastRun", new LinkedHashMap<>(lastRun));
+        snapshot.put("rules", timings);
+        return snapshot;
+    }
+
+    private static class Timer {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        Map<String, Object> snapshot() {
+            long n = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("count", n);
+            snapshot.put("totalMs", total / 1_000_000);
+            snapshot.put("avgMs", n > 0 ? (double) total / n / 1_000_000 : 0.0);
+            snapshot.put("maxMs", maxNanos.get() / 1_000_000.0);
+            return snapshot;
+        }
+    }
+}
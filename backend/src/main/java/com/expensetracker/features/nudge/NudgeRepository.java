@@ -2,20 +2,58 @@ package com.expensetracker.features.nudge;
 
 import com.expensetracker.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface NudgeRepository extends JpaRepository<Nudge, Long> {
 
-    List<Nudge> findByUserOrderByCreatedAtDesc(User user);
+    List<Nudge> findByUserAndDismissedFalseOrderByCreatedAtDesc(User user);
 
-    List<Nudge> findByUserAndIsReadOrderByCreatedAtDesc(User user, Boolean isRead);
+    List<Nudge> findByUserAndIsReadAndDismissedFalseOrderByCreatedAtDesc(User user, Boolean isRead);
 
     List<Nudge> findByUserAndTypeOrderByCreatedAtDesc(User user, Nudge.NudgeType type);
 
-    Long countByUserAndIsRead(User user, Boolean isRead);
+    Long countByUserAndIsReadAndDismissedFalse(User user, Boolean isRead);
+
+    Long countByUserAndDismissedFalse(User user);
 
     void deleteByUser(User user);
+
+    // Insert a generated nudge, or refresh the text of the one with the same fingerprint.
+    // Read and dismissed flags and the creation time of an existing nudge are kept.
+    @Modifying
+    @Query(value = "INSERT INTO nudges (user_id, nudge_type, title, message, priority, is_read, is_actionable, "
+            + "created_at, action_url, fingerprint, dismissed) "
+            + "VALUES (:userId, :type, :title, :message, :priority, false, :actionable, :createdAt, :actionUrl, "
+            + ":fingerprint, false) "
+            + "ON DUPLICATE KEY UPDATE title = VALUES(title), message = VALUES(message), "
+            + "priority = VALUES(priority), action_url = VALUES(action_url)", nativeQuery = true)
+    int upsert(@Param("userId") Long userId,
+               @Param("type") String type,
+               @Param("title") String title,
+               @Param("message") String message,
+               @Param("priority") String priority,
+               @Param("actionable") boolean actionable,
+               @Param("createdAt") LocalDateTime createdAt,
+               @Param("actionUrl") String actionUrl,
+               @Param("fingerprint") String fingerprint);
+
+    // Retention, in bounded batches: read or dismissed nudges older than readCutoff and
+    // any nudge older than maxCutoff (maxCutoff is the earlier of the two)
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM nudges WHERE created_at < :readCutoff "
+            + "AND (created_at < :maxCutoff OR is_read = true OR dismissed = true) "
+            + "LIMIT :batchSize", nativeQuery = true)
+    int deleteExpired(
+            @Param("readCutoff") LocalDateTime readCutoff,
+            @Param("maxCutoff") LocalDateTime maxCutoff,
+            @Param("batchSize") int batchSize);
 }
@@ -0,0 +1,59 @@
+package com.expensetracker.features.nudge;
+
+import com.expensetracker.service.SchedulerLockService;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the nudges table bounded per user: read or dismissed nudges are
+ * deleted after read-days, and every nudge after max-days. Deletes run in
+ * small batches, each its own transaction, so no long lock is held on a
+ * table users are reading. Only the node holding the job's lease runs it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NudgeRetentionJob {
+
+    static final String JOB_NAME = "nudge-retention";
+
+    private final NudgeRepository nudgeRepository;
+    private final SchedulerLockService schedulerLock;
+
+    @Value("${app.nudges.retention.read-days:30}")
+    private int readDays;
+
+    @Value("${app.nudges.retention.max-days:180}")
+    private int maxDays;
+
+    @Value("${app.nudges.retention.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Runs daily at 3 AM, after the nudge generation job
+     */
+    @Scheduled(cron = "${app.nudges.retention.cron:0 0 3 * * ?}")
+    public void compact() {
+        schedulerLock.runLocked(JOB_NAME, () -> compact(LocalDateTime.now()));
+    }
+
+    public int compact(LocalDateTime now) {
+        long started = System.currentTimeMillis();
+        LocalDateTime readCutoff = now.minusDays(readDays);
+        LocalDateTime maxCutoff = now.minusDays(Math.max(maxDays, readDays));
+
+        int deleted = 0;
+        int batch;
+        do {
+            batch = nudgeRepository.deleteExpired(readCutoff, maxCutoff, batchSize);
+            deleted += batch;
+        } while (batch == batchSize);
+
+        log.info("Deleted {} expired nudges in {} ms", deleted, System.currentTimeMillis() - started);
+        return deleted;
+    }
+}
@@ -0,0 +1,87 @@
+package com.expensetracker.features.nudge;
+
+import com.expensetracker.entity.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One declarative nudge rule: the subjects it looks at in a snapshot (the
+ * user's categories, upcoming bills, or the snapshot as a whole), a
+ * condition on each subject, and the nudge it produces when the condition
+ * holds. Rules are built once (see NudgeRules) and only ever read the
+ * snapshot and thresholds, so adding one costs no queries.
+ *
+ * @param <S> the subject type
+ */
+final class NudgeRule<S> {
+
+    @FunctionalInterface
+    interface Condition<S> {
+        boolean test(S subject, NudgeSnapshot snapshot, NudgeThresholds thresholds);
+    }
+
+    @FunctionalInterface
+    interface Template<S> {
+        Nudge render(S subject, NudgeSnapshot snapshot, NudgeThresholds thresholds);
+    }
+
+    private final String name;
+    private final Function<NudgeSnapshot, List<S>> subjects;
+    private final Condition<S> condition;
+    private final Template<S> template;
+
+    private NudgeRule(String name, Function<NudgeSnapshot, List<S>> subjects, Condition<S> condition, Template<S> template) {
+        this.name = name;
+        this.subjects = subjects;
+        this.condition = condition;
+        this.template = template;
+    }
+
+    /** A rule evaluated for every subject the snapshot yields */
+    static <S> Builder<S> forEach(String name, Function<NudgeSnapshot, List<S>> subjects) {
+        return new Builder<>(name, subjects);
+    }
+
+    /** A rule evaluated once, with the snapshot itself as the subject */
+    static Builder<NudgeSnapshot> once(String name) {
+        return new Builder<>(name, List::of);
+    }
+
+    String name() {
+        return name;
+    }
+
+    List<Nudge> evaluate(User user, NudgeSnapshot snapshot, NudgeThresholds thresholds) {
+        List<Nudge> nudges = new ArrayList<>();
+        for (S subject : subjects.apply(snapshot)) {
+            if (condition.test(subject, snapshot, thresholds)) {
+                Nudge nudge = template.render(subject, snapshot, thresholds);
+                nudge.setUser(user);
+                nudges.add(nudge);
+            }
+        }
+        return nudges;
+    }
+
+    static final class Builder<S> {
+
+        private final String name;
+        private final Function<NudgeSnapshot, List<S>> subjects;
+        private Condition<S> condition = (subject, snapshot, thresholds) -> true;
+
+        private Builder(String name, Function<NudgeSnapshot, List<S>> subjects) {
+            this.name = name;
+            this.subjects = subjects;
+        }
+
+        Builder<S> when(Condition<S> condition) {
+            this.condition = condition;
+            return this;
+        }
+
+        NudgeRule<S> then(Template<S> template) {
+            return new NudgeRule<>(name, subjects, condition, template);
+        }
+    }
+}
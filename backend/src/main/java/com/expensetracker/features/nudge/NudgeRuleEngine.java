@@ -0,0 +1,77 @@
+package com.expensetracker.features.nudge;
+
+import com.expensetracker.entity.User;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the rules in NudgeRules against a user's snapshot. Threshold
+ * defaults are read once from app.nudges.thresholds.*; each evaluation
+ * applies the user's overrides on top. Every rule is timed in NudgeMetrics,
+ * and one failing rule does not stop the others.
+ */
+@Component
+@Slf4j
+public class NudgeRuleEngine {
+
+    static final String PROPERTY_PREFIX = "app.nudges.thresholds.";
+
+    private final NudgeMetrics metrics;
+    private final NudgeThresholds defaults;
+
+    public NudgeRuleEngine(NudgeMetrics metrics, Environment environment) {
+        this.metrics = metrics;
+        Map<NudgeThreshold, BigDecimal> values = new EnumMap<>(NudgeThreshold.class);
+        for (NudgeThreshold threshold : NudgeThreshold.values()) {
+            values.put(
+                threshold,
+                environment.getProperty(PROPERTY_PREFIX + threshold.key(), BigDecimal.class, threshold.defaultValue())
+            );
+        }
+        this.defaults = new NudgeThresholds(values);
+    }
+
+    /** Defaults with the given overrides applied */
+    NudgeThresholds thresholds(List<NudgeThresholdOverride> overrides) {
+        Map<NudgeThreshold, BigDecimal> values = new EnumMap<>(NudgeThreshold.class);
+        for (NudgeThresholdOverride override : overrides) {
+            values.put(override.getThreshold(), override.getValue());
+        }
+        return defaults.with(values);
+    }
+
+    List<Nudge> evaluate(User user, NudgeSnapshot snapshot, NudgeThresholds thresholds) {
+        List<Nudge> nudges = new ArrayList<>();
+        for (NudgeRule<?> rule : NudgeRules.ALL) {
+            nudges.addAll(evaluate(rule, user, snapshot, thresholds));
+        }
+        if (nudges.isEmpty()) {
+            nudges.addAll(evaluate(NudgeRules.WELCOME, user, snapshot, thresholds));
+        }
+        return nudges;
+    }
+
+    private List<Nudge> evaluate(NudgeRule<?> rule, User user, NudgeSnapshot snapshot, NudgeThresholds thresholds) {
+        long started = System.nanoTime();
+        try {
+            List<Nudge> nudges = rule.evaluate(user, snapshot, thresholds);
+            metrics.record(rule.name(), started);
+            return nudges;
+        } catch (Exception e) {
+            log.error(
+                "Error generating {} for user {}: {}",
+                rule.name(),
+                user.getId(),
+                e.getMessage(),
+                e
+            );
+            return List.of();
+        }
+    }
+}
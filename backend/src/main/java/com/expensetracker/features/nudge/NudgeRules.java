@@ -0,0 +1,244 @@
+package com.expensetracker.features.nudge;
+
+import static com.expensetracker.features.nudge.NudgeThreshold.*;
+
+import com.expensetracker.entity.RecurringExpense;
+import com.expensetracker.features.nudge.NudgeSnapshot.CategorySpend;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The nudge rules, in evaluation order. Each is built once at class load;
+ * thresholds are looked up at evaluation time, so configuration and
+ * per-user overrides apply without rebuilding anything.
+ */
+final class NudgeRules {
+
+    private static final DateTimeFormatter DUE_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd");
+
+    private NudgeRules() {}
+
+    static final NudgeRule<CategorySpend> BUDGET_ALERTS = NudgeRule
+        .forEach("budget alerts", NudgeSnapshot::categories)
+        .when((category, snapshot, thresholds) ->
+            category.monthToDate().count() > 0 &&
+            category.monthToDate().total().compareTo(thresholds.get(BUDGET_ALERT_HIGH)) > 0
+        )
+        .then((category, snapshot, thresholds) -> Nudge.builder()
+            .type(Nudge.NudgeType.BUDGET_ALERT)
+            .title("High Spending Alert")
+            .message(
+                String.format(
+                    "You've spent ৳%.2f on %s this month across %d transactions. Consider reviewing your expenses.",
+                    category.monthToDate().total(),
+                    category.name(),
+                    category.monthToDate().count()
+                )
+            )
+            .priority(
+                category.monthToDate().total().compareTo(thresholds.get(BUDGET_ALERT_URGENT)) > 0
+                    ? Nudge.Priority.URGENT
+                    : Nudge.Priority.HIGH
+            )
+            .actionUrl("/expenses")
+            .isActionable(true)
+            .fingerprint(fingerprint(
+                Nudge.NudgeType.BUDGET_ALERT,
+                "category-" + category.id(),
+                month(snapshot)
+            ))
+            .build());
+
+    static final NudgeRule<NudgeSnapshot> UNUSUAL_SPENDING = NudgeRule
+        .once("unusual spending alerts")
+        .when((snapshot, ignored, thresholds) ->
+            snapshot.previousWeek().total().compareTo(BigDecimal.ZERO) > 0 &&
+            weeklyIncreasePercent(snapshot) > thresholds.get(UNUSUAL_SPENDING_INCREASE_PERCENT).doubleValue()
+        )
+        .then((snapshot, ignored, thresholds) -> Nudge.builder()
+            .type(Nudge.NudgeType.UNUSUAL_SPENDING)
+            .title("Unusual Spending Detected")
+            .message(
+                String.format(
+                    "Your spending increased by %.0f%% this week (৳%.2f vs ৳%.2f last week). Review your recent expenses.",
+                    weeklyIncreasePercent(snapshot),
+                    snapshot.thisWeek().total(),
+                    snapshot.previousWeek().total()
+                )
+            )
+            .priority(Nudge.Priority.HIGH)
+            .actionUrl("/dashboard")
+            .isActionable(true)
+            .fingerprint(fingerprint(
+                Nudge.NudgeType.UNUSUAL_SPENDING,
+                "weekly-spend",
+                isoWeek(snapshot.today())
+            ))
+            .build());
+
+    static final NudgeRule<RecurringExpense> BILL_REMINDERS = NudgeRule
+        .forEach("bill reminders", NudgeSnapshot::upcomingBills)
+        .then((bill, snapshot, thresholds) -> {
+            long daysUntil = ChronoUnit.DAYS.between(snapshot.today(), bill.getNextDueDate());
+            return Nudge.builder()
+                .type(Nudge.NudgeType.BILL_REMINDER)
+                .title("Upcoming Bill")
+                .message(
+                    String.format(
+                        "%s payment of ৳%.2f due in %d days (%s)",
+                        bill.getDescription(),
+                        bill.getAmount(),
+                        daysUntil,
+                        bill.getNextDueDate().format(DUE_DATE_FORMAT)
+                    )
+                )
+                .priority(
+                    daysUntil <= thresholds.intValue(BILL_REMINDER_HIGH_PRIORITY_DAYS)
+                        ? Nudge.Priority.HIGH
+                        : Nudge.Priority.MEDIUM
+                )
+                .actionUrl("/recurring")
+                .isActionable(true)
+                .fingerprint(fingerprint(
+                    Nudge.NudgeType.BILL_REMINDER,
+                    "recurring-" + bill.getId(),
+                    bill.getNextDueDate().toString()
+                ))
+                .build();
+        });
+
+    static final NudgeRule<CategorySpend> SAVINGS_OPPORTUNITIES = NudgeRule
+        .forEach("savings opportunities", NudgeSnapshot::categories)
+        .when((category, snapshot, thresholds) ->
+            category.lastMonth().count() >= thresholds.intValue(SAVINGS_MIN_TRANSACTIONS) &&
+            category.lastMonth().total().compareTo(thresholds.get(SAVINGS_AMOUNT)) > 0
+        )
+        .then((category, snapshot, thresholds) -> Nudge.builder()
+            .type(Nudge.NudgeType.SAVINGS_OPPORTUNITY)
+            .title("Savings Opportunity")
+            .message(
+                String.format(
+                    "You spent ৳%.2f on %s in the last month. Consider setting a budget to reduce expenses by 10-20%%.",
+                    category.lastMonth().total(),
+                    category.name()
+                )
+            )
+            .priority(Nudge.Priority.LOW)
+            .actionUrl("/categories")
+            .isActionable(true)
+            .fingerprint(fingerprint(
+                Nudge.NudgeType.SAVINGS_OPPORTUNITY,
+                "category-" + category.id(),
+                month(snapshot)
+            ))
+            .build());
+
+    static final NudgeRule<NudgeSnapshot> SPENDING_INSIGHTS = NudgeRule
+        .once("spending insights")
+        .when((snapshot, ignored, thresholds) ->
+            snapshot.lastMonth().count() > 0 && !snapshot.lastMonthByCategoryName().isEmpty()
+        )
+        .then((snapshot, ignored, thresholds) -> {
+            Map.Entry<String, BigDecimal> top = snapshot
+                .lastMonthByCategoryName()
+                .entrySet()
+                .stream()
+                .max(Map.Entry.comparingByValue())
+                .orElseThrow();
+            BigDecimal total = snapshot.lastMonth().total();
+            return Nudge.builder()
+                .type(Nudge.NudgeType.SPENDING_INSIGHT)
+                .title("Monthly Spending Summary")
+                .message(
+                    String.format(
+                        "Last month: %d transactions totaling ৳%.2f. Top category: %s (৳%.2f, %.0f%% of total)",
+                        snapshot.lastMonth().count(),
+                        total,
+                        top.getKey(),
+                        top.getValue(),
+                        ((top.getValue().doubleValue() / total.doubleValue()) * 100)
+                    )
+                )
+                .priority(Nudge.Priority.LOW)
+                .actionUrl("/dashboard")
+                .isActionable(true)
+                .fingerprint(fingerprint(
+                    Nudge.NudgeType.SPENDING_INSIGHT,
+                    "monthly-summary",
+                    month(snapshot)
+                ))
+                .build();
+        });
+
+    /** Evaluated only when no other rule produced a nudge */
+    static final NudgeRule<NudgeSnapshot> WELCOME = NudgeRule
+        .once("welcome")
+        .then((snapshot, ignored, thresholds) -> {
+            if (snapshot.lastMonth().count() == 0) {
+                // User has no expenses - suggest adding some
+                return Nudge.builder()
+                    .type(Nudge.NudgeType.SPENDING_INSIGHT)
+                    .title("Welcome to Smart Nudges!")
+                    .message(
+                        "Start tracking your expenses to receive personalized financial insights and alerts. Add your first expense to get started!"
+                    )
+                    .priority(Nudge.Priority.LOW)
+                    .actionUrl("/expenses")
+                    .isActionable(true)
+                    .fingerprint(fingerprint(Nudge.NudgeType.SPENDING_INSIGHT, "welcome", "once"))
+                    .build();
+            }
+            // User has expenses but didn't meet thresholds - provide encouragement
+            return Nudge.builder()
+                .type(Nudge.NudgeType.SPENDING_INSIGHT)
+                .title("Keep Tracking!")
+                .message(
+                    String.format(
+                        "You've tracked %d expenses totaling ৳%.2f. Continue adding expenses to receive personalized budget alerts and savings tips!",
+                        snapshot.lastMonth().count(),
+                        snapshot.lastMonth().total()
+                    )
+                )
+                .priority(Nudge.Priority.LOW)
+                .actionUrl("/dashboard")
+                .isActionable(true)
+                .fingerprint(fingerprint(Nudge.NudgeType.SPENDING_INSIGHT, "keep-tracking", month(snapshot)))
+                .build();
+        });
+
+    static final List<NudgeRule<?>> ALL = List.of(
+        BUDGET_ALERTS,
+        UNUSUAL_SPENDING,
+        BILL_REMINDERS,
+        SAVINGS_OPPORTUNITIES,
+        SPENDING_INSIGHTS
+    );
+
+    /**
+     * Identity of a generated nudge: what kind, about what, for which
+     * period. The same fingerprint means the same nudge.
+     */
+    static String fingerprint(Nudge.NudgeType type, String subject, String period) {
+        return type.name() + ":" + subject + ":" + period;
+    }
+
+    private static double weeklyIncreasePercent(NudgeSnapshot snapshot) {
+        double current = snapshot.thisWeek().total().doubleValue();
+        double previous = snapshot.previousWeek().total().doubleValue();
+        return ((current - previous) / previous) * 100;
+    }
+
+    private static String month(NudgeSnapshot snapshot) {
+        return YearMonth.from(snapshot.today()).toString();
+    }
+
+    private static String isoWeek(LocalDate date) {
+        return date.get(IsoFields.WEEK_BASED_YEAR) + "-W" + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+}
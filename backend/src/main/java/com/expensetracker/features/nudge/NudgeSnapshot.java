@@ -0,0 +1,149 @@
+package com.expensetracker.features.nudge;
+
+import com.expensetracker.entity.RecurringExpense;
+import com.expensetracker.features.expense.ExpenseSummary;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates the nudge rules look at for one user, computed in one pass over
+ * the user's last month of expenses: per-category spend this month and over
+ * the last month, the last two weeks and the whole month, plus the active
+ * bills due in the next week. Rules read these instead of querying.
+ * Immutable; built by NudgeService.
+ */
+final class NudgeSnapshot {
+
+    record Spend(BigDecimal total, int count) {
+
+        static final Spend NONE = new Spend(BigDecimal.ZERO, 0);
+
+        Spend add(BigDecimal amount) {
+            return new Spend(total.add(amount), count + 1);
+        }
+    }
+
+    /** One of the user's own categories */
+    record CategorySpend(Long id, String name, Spend monthToDate, Spend lastMonth) {}
+
+    private final LocalDate today;
+    private final List<CategorySpend> categories;
+    private final Spend thisWeek;
+    private final Spend previousWeek;
+    private final Spend lastMonth;
+    private final Map<String, BigDecimal> lastMonthByCategoryName;
+    private final List<RecurringExpense> upcomingBills;
+
+    /**
+     * @param categories the user's categories, id -> name, in display order
+     * @param expenses   expenses dated windowStart(today)..today
+     */
+    NudgeSnapshot(
+        LocalDate today,
+        Map<Long, String> categories,
+        List<ExpenseSummary> expenses,
+        List<RecurringExpense> upcomingBills
+    ) {
+        this.today = today;
+        this.upcomingBills = List.copyOf(upcomingBills);
+
+        LocalDate startOfMonth = today.withDayOfMonth(1);
+        LocalDate monthAgo = today.minusMonths(1);
+        LocalDate weekAgo = today.minusWeeks(1);
+        LocalDate twoWeeksAgo = weekAgo.minusWeeks(1);
+
+        Map<Long, Spend> monthToDate = new HashMap<>();
+        Map<Long, Spend> lastMonthByCategory = new HashMap<>();
+        Map<String, BigDecimal> byName = new HashMap<>();
+        Spend week = Spend.NONE;
+        Spend previous = Spend.NONE;
+        Spend month = Spend.NONE;
+
+        // Windows are inclusive at both ends and may share a boundary day, as the rules always had them
+        for (ExpenseSummary expense : expenses) {
+            LocalDate date = expense.date();
+            BigDecimal amount = expense.amount();
+            if (between(date, weekAgo, today)) {
+                week = week.add(amount);
+            }
+            if (between(date, twoWeeksAgo, weekAgo)) {
+                previous = previous.add(amount);
+            }
+            if (!between(date, monthAgo, today)) {
+                continue;
+            }
+            month = month.add(amount);
+            if (expense.categoryName() != null) {
+                byName.merge(expense.categoryName(), amount, BigDecimal::add);
+            }
+            if (expense.categoryId() != null) {
+                Long id = expense.categoryId();
+                lastMonthByCategory.put(id, lastMonthByCategory.getOrDefault(id, Spend.NONE).add(amount));
+                if (!date.isBefore(startOfMonth)) {
+                    monthToDate.put(id, monthToDate.getOrDefault(id, Spend.NONE).add(amount));
+                }
+            }
+        }
+
+        List<CategorySpend> spends = new ArrayList<>(categories.size());
+        categories.forEach((id, name) -> spends.add(new CategorySpend(
+            id,
+            name,
+            monthToDate.getOrDefault(id, Spend.NONE),
+            lastMonthByCategory.getOrDefault(id, Spend.NONE)
+        )));
+
+        this.categories = Collections.unmodifiableList(spends);
+        this.thisWeek = week;
+        this.previousWeek = previous;
+        this.lastMonth = month;
+        this.lastMonthByCategoryName = Collections.unmodifiableMap(new LinkedHashMap<>(byName));
+    }
+
+    /** First day of the expense window a snapshot taken on the given day needs */
+    static LocalDate windowStart(LocalDate today) {
+        return today.minusMonths(1);
+    }
+
+    LocalDate today() {
+        return today;
+    }
+
+    List<CategorySpend> categories() {
+        return categories;
+    }
+
+    /** From a week ago to today, both days included */
+    Spend thisWeek() {
+        return thisWeek;
+    }
+
+    /** From two weeks ago to a week ago, both days included */
+    Spend previousWeek() {
+        return previousWeek;
+    }
+
+    /** From a month ago to today, both days included */
+    Spend lastMonth() {
+        return lastMonth;
+    }
+
+    /** Last month's spend by category name, over every category the expenses use */
+    Map<String, BigDecimal> lastMonthByCategoryName() {
+        return lastMonthByCategoryName;
+    }
+
+    List<RecurringExpense> upcomingBills() {
+        return upcomingBills;
+    }
+
+    private static boolean between(LocalDate date, LocalDate from, LocalDate to) {
+        return !date.isBefore(from) && !date.isAfter(to);
+    }
+}
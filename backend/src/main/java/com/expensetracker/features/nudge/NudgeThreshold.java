@@ -0,0 +1,46 @@
+package com.expensetracker.features.nudge;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Tunable limits of the nudge rules. Defaults come from
+ * app.nudges.thresholds.<key> and can be overridden per user.
+ */
+public enum NudgeThreshold {
+    // Month-to-date spend in one category (BDT) that raises a budget alert, and that makes it urgent
+    BUDGET_ALERT_HIGH("budget-alert.high", "10000"),
+    BUDGET_ALERT_URGENT("budget-alert.urgent", "20000"),
+    // Week-over-week spending increase, in percent
+    UNUSUAL_SPENDING_INCREASE_PERCENT("unusual-spending.increase-percent", "50"),
+    // Bills due within this many days are high priority
+    BILL_REMINDER_HIGH_PRIORITY_DAYS("bill-reminder.high-priority-days", "3"),
+    // Spend in one category over the last month (BDT) and its number of expenses for a savings tip
+    SAVINGS_AMOUNT("savings.amount", "5000"),
+    SAVINGS_MIN_TRANSACTIONS("savings.min-transactions", "5");
+
+    private final String key;
+    private final BigDecimal defaultValue;
+
+    NudgeThreshold(String key, String defaultValue) {
+        this.key = key;
+        this.defaultValue = new BigDecimal(defaultValue);
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public BigDecimal defaultValue() {
+        return defaultValue;
+    }
+
+    public static Optional<NudgeThreshold> byKey(String key) {
+        for (NudgeThreshold threshold : values()) {
+            if (threshold.key.equals(key)) {
+                return Optional.of(threshold);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,34 @@
+package com.expensetracker.features.nudge;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's own value for one nudge threshold, replacing the configured default
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "nudge_threshold_overrides")
+public class NudgeThresholdOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 64)
+    private NudgeThreshold threshold;
+
+    @Column(name = "threshold_value", nullable = false, precision = 19, scale = 2)
+    private BigDecimal value;
+}
@@ -0,0 +1,14 @@
+package com.expensetracker.features.nudge;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NudgeThresholdOverrideRepository extends JpaRepository<NudgeThresholdOverride, Long> {
+
+    List<NudgeThresholdOverride> findByUserId(Long userId);
+
+    void deleteByUserIdAndThreshold(Long userId, NudgeThreshold threshold);
+}
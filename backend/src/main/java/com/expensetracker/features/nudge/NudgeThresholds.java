@@ -0,0 +1,44 @@
+package com.expensetracker.features.nudge;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The threshold values one evaluation runs with: configured defaults with
+ * the user's overrides applied. Immutable.
+ */
+final class NudgeThresholds {
+
+    private final Map<NudgeThreshold, BigDecimal> values;
+
+    NudgeThresholds(Map<NudgeThreshold, BigDecimal> values) {
+        this.values = new EnumMap<>(values);
+    }
+
+    BigDecimal get(NudgeThreshold threshold) {
+        return values.get(threshold);
+    }
+
+    int intValue(NudgeThreshold threshold) {
+        return values.get(threshold).intValue();
+    }
+
+    /** A copy with some values replaced */
+    NudgeThresholds with(Map<NudgeThreshold, BigDecimal> overrides) {
+        if (overrides.isEmpty()) {
+            return this;
+        }
+        Map<NudgeThreshold, BigDecimal> merged = new EnumMap<>(values);
+        merged.putAll(overrides);
+        return new NudgeThresholds(merged);
+    }
+
+    /** key -> value, for the API */
+    Map<String, BigDecimal> asMap() {
+        Map<String, BigDecimal> map = new LinkedHashMap<>();
+        values.forEach((threshold, value) -> map.put(threshold.key(), value));
+        return map;
+    }
+}
@@ -0,0 +1,122 @@
+package com.expensetracker.features.receipt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick matcher over a fixed keyword dictionary. Each keyword maps to
+ * a group index (0-63); feeding text one char at a time reports the groups
+ * of every keyword ending at that char, so all keywords are found in one
+ * pass regardless of how many there are. Matching is case-insensitive and
+ * substring-based, like {@code text.toLowerCase().contains(keyword)}.
+ * Immutable once built and safe to share; callers keep the current state.
+ */
+final class KeywordAutomaton {
+
+    static final int ROOT = 0;
+
+    // Dense ASCII transition table per state, with failure links folded in at build time
+    private static final int ALPHABET = 128;
+
+    private final int[][] next;
+    private final long[] output;
+
+    private KeywordAutomaton(int[][] next, long[] output) {
+        this.next = next;
+        this.output = output;
+    }
+
+    /**
+     * @param groups keywords per group; group order is the group index
+     */
+    static KeywordAutomaton build(List<List<String>> groups) {
+        if (groups.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most 64 keyword groups");
+        }
+
+        // Trie
+        List<int[]> gotos = new ArrayList<>();
+        List<Long> outputs = new ArrayList<>();
+        gotos.add(newRow());
+        outputs.add(0L);
+        for (int group = 0; group < groups.size(); group++) {
+            for (String keyword : groups.get(group)) {
+                int state = ROOT;
+                for (char c : keyword.toLowerCase().toCharArray()) {
+                    int index = index(c);
+                    if (gotos.get(state)[index] < 0) {
+                        gotos.get(state)[index] = gotos.size();
+                        gotos.add(newRow());
+                        outputs.add(0L);
+                    }
+                    state = gotos.get(state)[index];
+                }
+                outputs.set(state, outputs.get(state) | (1L << group));
+            }
+        }
+
+        // Breadth-first failure links, turned into a complete transition table
+        int states = gotos.size();
+        int[][] next = gotos.toArray(new int[states][]);
+        long[] output = new long[states];
+        for (int i = 0; i < states; i++) {
+            output[i] = outputs.get(i);
+        }
+        int[] fail = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int index = 0; index < ALPHABET; index++) {
+            int child = next[ROOT][index];
+            if (child < 0) {
+                next[ROOT][index] = ROOT;
+            } else {
+                fail[child] = ROOT;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            output[state] |= output[fail[state]];
+            for (int index = 0; index < ALPHABET; index++) {
+                int child = next[state][index];
+                if (child < 0) {
+                    next[state][index] = next[fail[state]][index];
+                } else {
+                    fail[child] = next[fail[state]][index];
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return new KeywordAutomaton(next, output);
+    }
+
+    /** Advance by one char of text; non-ASCII chars reset to the root. */
+    int step(int state, char c) {
+        if (c >= 'A' && c <= 'Z') {
+            c = (char) (c + ('a' - 'A'));
+        } else if (c >= ALPHABET) {
+            return ROOT;
+        }
+        return next[state][c];
+    }
+
+    /** Bit set of the groups with a keyword ending in this state. */
+    long matches(int state) {
+        return output[state];
+    }
+
+    private static int index(char c) {
+        if (c >= ALPHABET) {
+            throw new IllegalArgumentException("Keywords must be ASCII: " + c);
+        }
+        return c;
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,49 @@
+package com.expensetracker.features.receipt;
+
+import java.nio.file.Path;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Returns a fixed sample receipt regardless of the image. Used when no OCR
+ * engine is configured, e.g. in development and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.receipts.ocr.engine", havingValue = "mock", matchIfMissing = true)
+public class MockOcrEngine implements OcrEngine {
+
+    private static final String SAMPLE = """
+        WALMART SUPERCENTER
+        Store #1234
+        123 Main Street
+        City, State 12345
+
+        Date: 12/15/2024
+        Time: 14:30:25
+
+        GROCERIES
+        Milk                    $4.99
+        Bread                   $2.49
+        Eggs                    $3.99
+        Chicken                $12.99
+
+        SUBTOTAL              $24.46
+        TAX                    $2.20
+        TOTAL                 $26.66
+
+        VISA ****1234
+        Auth: 123456
+
+        Thank you for shopping!
+        """;
+
+    @Override
+    public String name() {
+        return "mock";
+    }
+
+    @Override
+    public String recognize(Path image) {
+        return SAMPLE;
+    }
+}
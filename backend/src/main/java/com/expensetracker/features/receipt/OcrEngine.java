@@ -0,0 +1,17 @@
+package com.expensetracker.features.receipt;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Turns a receipt image into text. Exactly one implementation is active,
+ * chosen with app.receipts.ocr.engine. Implementations are called from the
+ * pipeline's worker threads and must be thread-safe.
+ */
+public interface OcrEngine {
+
+    /** Short, stable identifier; cached results are only reused for the same engine */
+    String name();
+
+    String recognize(Path image) throws IOException;
+}
@@ -3,6 +3,7 @@ package com.expensetracker.features.receipt;
 import com.expensetracker.entity.BaseEntity;
 import com.expensetracker.entity.User;
 import com.expensetracker.features.expense.Expense;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -31,10 +32,23 @@ public class Receipt extends BaseEntity {
     @Column(name = "linked_expense_id")
     private Long linkedExpenseId;
 
+    // Storage path of the original image; clients load it through getOriginalUrl()
+    @JsonIgnore
     @Column(nullable = false)
-    private String imageUrl; // Path to stored receipt image
+    private String imageUrl;
 
-    @Column(length = 1000)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 of the image, key into receipt_blobs
+
+    @JsonIgnore
+    @Column(name = "thumbnail_path")
+    private String thumbnailPath;
+
+    @JsonIgnore
+    @Column(name = "preview_path")
+    private String previewPath;
+
+    @Column(columnDefinition = "TEXT")
     private String ocrText; // Raw OCR extracted text
 
     @Column(length = 500)
@@ -56,6 +70,21 @@ public class Receipt extends BaseEntity {
 
     private Integer confidence; // OCR confidence score 0-100
 
+    // API locations of the images (owner only, Bearer auth). The downscaled ones are
+    // null until the pipeline has derived them; the receipts grid loads those rather
+    // than the full-size original.
+    public String getOriginalUrl() {
+        return getId() != null ? "/api/receipts/" + getId() + "/image" : null;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailPath != null ? "/api/receipts/" + getId() + "/image?size=thumbnail" : null;
+    }
+
+    public String getPreviewUrl() {
+        return previewPath != null ? "/api/receipts/" + getId() + "/image?size=preview" : null;
+    }
+
     public enum ProcessingStatus {
         PENDING,
         PROCESSING,
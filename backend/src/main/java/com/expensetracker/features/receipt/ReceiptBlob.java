@@ -0,0 +1,46 @@
+package com.expensetracker.features.receipt;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * One stored receipt file, keyed by the SHA-256 of its bytes.
+ * Rows are written through {@link ReceiptStorage}, never directly.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "receipt_blobs")
+public class ReceiptBlob {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private String path;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    // OCR result for these bytes and the engine that produced it; reused instead of running OCR again
+    @Column(name = "ocr_text", columnDefinition = "TEXT")
+    private String ocrText;
+
+    @Column(name = "ocr_engine", length = 32)
+    private String ocrEngine;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,51 @@
+package com.expensetracker.features.receipt;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface ReceiptBlobRepository extends JpaRepository<ReceiptBlob, String> {
+
+    // Atomic insert-or-increment; the row stays locked until the caller commits,
+    // which serialises it against a concurrent release of the same blob
+    @Modifying
+    @Query(value = "INSERT INTO receipt_blobs (content_hash, path, size_bytes, ref_count, created_at) "
+            + "VALUES (:hash, :path, :size, 1, NOW(6)) "
+            + "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+    int addReference(@Param("hash") String hash,
+                     @Param("path") String path,
+                     @Param("size") long size);
+
+    @Modifying
+    @Query("UPDATE ReceiptBlob b SET b.refCount = b.refCount - 1 WHERE b.contentHash = :hash")
+    int removeReference(@Param("hash") String hash);
+
+    @Modifying
+    @Query("DELETE FROM ReceiptBlob b WHERE b.contentHash = :hash AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    // Locking read: waits for a concurrent addReference of the same hash to commit, and
+    // holds it off until the caller commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM ReceiptBlob b WHERE b.contentHash = :hash")
+    Optional<ReceiptBlob> findByHashForUpdate(@Param("hash") String hash);
+
+    @Query("SELECT b.ocrText FROM ReceiptBlob b WHERE b.contentHash = :hash AND b.ocrEngine = :engine "
+            + "AND b.ocrText IS NOT NULL")
+    Optional<String> findOcrText(@Param("hash") String hash, @Param("engine") String engine);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReceiptBlob b SET b.ocrText = :text, b.ocrEngine = :engine WHERE b.contentHash = :hash")
+    int saveOcrText(@Param("hash") String hash,
+                    @Param("engine") String engine,
+                    @Param("text") String text);
+}
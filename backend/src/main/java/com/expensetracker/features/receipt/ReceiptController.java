@@ -1,11 +1,25 @@
 package com.expensetracker.features.receipt;
 
 import com.expensetracker.entity.User;
+import com.expensetracker.exception.BusinessException;
 import com.expensetracker.repository.UserRepository;
 import com.expensetracker.service.UserDetailsImpl;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,8 +34,23 @@ import org.springframework.web.multipart.MultipartFile;
 public class ReceiptController {
 
     private final ReceiptService receiptService;
+    private final ReceiptProcessingPipeline processingPipeline;
     private final UserRepository userRepository;
 
+    // A receipt's image never changes, but only its owner may see it
+    private static final CacheControl IMAGE_CACHE = CacheControl
+            .maxAge(Duration.ofDays(365))
+            .cachePrivate()
+            .immutable();
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    // Request attributes of Tomcat's sendfile support (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     /**
      * Upload a new receipt
      */
@@ -69,7 +98,83 @@ public class ReceiptController {
     }
 
     /**
-     * Process a receipt with OCR
+     * Processing status of a receipt, for clients polling after an upload
+     */
+    @GetMapping("/{id}/status")
+    public ResponseEntity<Map<String, Object>> getReceiptStatus(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable Long id) {
+        User user = userRepository
+                .findById(userDetails.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Receipt receipt = receiptService.getReceiptById(user, id);
+        Map<String, Object> status = new HashMap<>();
+        status.put("id", receipt.getId());
+        status.put("status", receipt.getStatus());
+        status.put("confidence", receipt.getConfidence());
+        status.put("errorMessage", receipt.getErrorMessage());
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * Receipt image, for the owner only: size=thumbnail|preview|original. Revalidation with If-None-Match /
+     * If-Modified-Since gets a 304, and Range requests get 206 partial content
+     * (both handled by Spring from the ETag, Last-Modified and Resource body).
+     * Full GETs are handed to Tomcat's sendfile when the connector supports it,
+     * so the file goes from page cache to socket without passing through the JVM.
+     */
+    @GetMapping("/{id}/image")
+    public ResponseEntity<Resource> getReceiptImage(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "original") String size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        User user = userRepository
+                .findById(userDetails.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        ReceiptThumbnailer.Variant variant = null;
+        if (!"original".equalsIgnoreCase(size)) {
+            try {
+                variant = ReceiptThumbnailer.Variant.valueOf(size.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Invalid image size: " + size);
+            }
+        }
+        ReceiptService.ReceiptImage image = receiptService.getReceiptImage(user, id, variant);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(IMAGE_CACHE)
+                .lastModified(image.lastModified())
+                .contentType(image.contentType());
+        if (image.etag() != null) {
+            builder.eTag(image.etag());
+        }
+
+        boolean fullBody = HttpMethod.GET.matches(request.getMethod())
+                && request.getHeader(HttpHeaders.RANGE) == null
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED));
+        if (fullBody && !isNotModified(request, image)) {
+            request.setAttribute(SENDFILE_FILENAME, image.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, image.size());
+            response.setContentLengthLong(image.size());
+            return builder.build();
+        }
+
+        return builder.body(new FileSystemResource(image.path()));
+    }
+
+    /**
+     * OCR pipeline queue depth and per-stage timings; admins only
+     */
+    @GetMapping("/pipeline")
+    public ResponseEntity<Map<String, Object>> getPipelineStats() {
+        return ResponseEntity.ok(processingPipeline.stats());
+    }
+
+    /**
+     * Queue a receipt for OCR processing
      */
     @PostMapping("/{id}/process")
     public ResponseEntity<Receipt> processReceipt(
@@ -202,26 +307,42 @@ public class ReceiptController {
     }
 
     /**
-     * Search receipts
+     * Search receipts. q matches words in the merchant name or OCR text
+     * (merchantName is accepted as an older name for it); dates are
+     * yyyy-MM-dd and inclusive. Paged, newest first.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Receipt>> searchReceipts(
+    public ResponseEntity<Page<Receipt>> searchReceipts(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String merchantName,
-            @RequestParam(required = false) Double minAmount,
-            @RequestParam(required = false) Double maxAmount,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
             @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         User user = userRepository
                 .findById(userDetails.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        List<Receipt> receipts = receiptService.searchReceipts(
+        Page<Receipt> receipts = receiptService.searchReceipts(
                 user,
-                merchantName,
+                q != null ? q : merchantName,
                 minAmount,
                 maxAmount,
                 startDate,
-                endDate);
+                endDate,
+                PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE))));
         return ResponseEntity.ok(receipts);
     }
+
+    // Conditional GETs must still get their 304 from Spring rather than a sendfile body
+    private boolean isNotModified(HttpServletRequest request, ReceiptService.ReceiptImage image) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return image.etag() != null && ifNoneMatch.contains(image.etag());
+        }
+        long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && image.lastModified() / 1000 <= ifModifiedSince / 1000;
+    }
 }
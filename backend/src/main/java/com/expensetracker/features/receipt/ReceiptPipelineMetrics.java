@@ -0,0 +1,95 @@
+package com.expensetracker.features.receipt;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process timings for the receipt pipeline, per stage: count, total and
+ * max duration since startup. Written from worker threads without locking.
+ */
+@Component
+public class ReceiptPipelineMetrics {
+
+    public enum Stage {
+        QUEUE_WAIT,
+        THUMBNAIL,
+        OCR,
+        OCR_ENGINE, // engine calls only; cache hits are counted separately
+        EXTRACT,
+        PERSIST,
+        TOTAL,
+    }
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder ocrCacheHits = new LongAdder();
+
+    public ReceiptPipelineMetrics() {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, new Timer());
+        }
+    }
+
+    /**
+     * Record the time since startedNanos against a stage and return the
+     * current time, so consecutive stages can be chained.
+     */
+    public long record(Stage stage, long startedNanos) {
+        long now = System.nanoTime();
+        timers.get(stage).add(now - startedNanos);
+        return now;
+    }
+
+    public void submitted() {
+        submitted.increment();
+    }
+
+    public void rejected() {
+        rejected.increment();
+    }
+
+    public void ocrCacheHit() {
+        ocrCacheHits.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stages = new LinkedHashMap<>();
+        timers.forEach((stage, timer) -> stages.put(stage.name(), timer.snapshot()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("submitted", submitted.sum());
+        snapshot.put("rejected", rejected.sum());
+        snapshot.put("ocrCacheHits", ocrCacheHits.sum());
+        snapshot.put("stages", stages);
+        return snapshot;
+    }
+
+    private static class Timer {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        Map<String, Object> snapshot() {
+            long n = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("count", n);
+            snapshot.put("totalMs", total / 1_000_000);
+            snapshot.put("avgMs", n > 0 ? (double) total / n / 1_000_000 : 0.0);
+            snapshot.put("maxMs", maxNanos.get() / 1_000_000.0);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.expensetracker.features.receipt;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Receipt OCR queue. The durable queue is receipts.status: PENDING rows are
+ * waiting, PROCESSING rows are claimed by a worker. In memory there is only a
+ * fixed pool with a bounded hand-off queue. When that queue is full a
+ * submission is dropped, not blocked; the receipt stays PENDING and the poller
+ * picks it up once workers have capacity again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReceiptProcessingPipeline {
+
+    private final ReceiptRepository receiptRepository;
+    private final ReceiptProcessor receiptProcessor;
+    private final ReceiptPipelineMetrics metrics;
+
+    @Value("${app.receipts.pipeline.workers:4}")
+    private int workers;
+
+    @Value("${app.receipts.pipeline.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.receipts.pipeline.stuck-after-minutes:10}")
+    private int stuckAfterMinutes;
+
+    // Ids handed to the executor and not finished yet; keeps the poller from queueing them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            workers,
+            workers,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "receipt-ocr-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Anything not finished stays PENDING/PROCESSING in the table and is resumed on the next start
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a PENDING receipt. Inside a transaction the hand-off waits for the
+     * commit, so a worker never looks for a row it cannot see yet.
+     */
+    public void submit(Long receiptId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        enqueue(receiptId);
+                    }
+                }
+            );
+        } else {
+            enqueue(receiptId);
+        }
+    }
+
+    /**
+     * Feeds PENDING receipts to the pool as capacity frees up, oldest first,
+     * and returns receipts stuck in PROCESSING (worker died, app restarted)
+     * to the queue.
+     */
+    @Scheduled(
+        initialDelayString = "${app.receipts.pipeline.poll-interval-ms:15000}",
+        fixedDelayString = "${app.receipts.pipeline.poll-interval-ms:15000}"
+    )
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        int requeued = receiptRepository.transitionStale(
+            Receipt.ProcessingStatus.PROCESSING,
+            Receipt.ProcessingStatus.PENDING,
+            now.minusMinutes(stuckAfterMinutes),
+            now
+        );
+        if (requeued > 0) {
+            log.warn("Requeued {} receipts stuck in PROCESSING", requeued);
+        }
+
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<Long> pending = receiptRepository.findIdsByStatus(
+            Receipt.ProcessingStatus.PENDING,
+            PageRequest.of(0, capacity + inFlight.size())
+        );
+        for (Long id : pending) {
+            if (!inFlight.contains(id) && !enqueue(id)) {
+                break;
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers);
+        stats.put("activeWorkers", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.putAll(metrics.snapshot());
+        return stats;
+    }
+
+    private boolean enqueue(Long receiptId) {
+        if (!inFlight.add(receiptId)) {
+            return true;
+        }
+        long enqueued = System.nanoTime();
+        try {
+            executor.execute(() -> run(receiptId, enqueued));
+            metrics.submitted();
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(receiptId);
+            metrics.rejected();
+            log.debug("Receipt queue full; {} left PENDING for the poller", receiptId);
+            return false;
+        }
+    }
+
+    private void run(Long receiptId, long enqueued) {
+        try {
+            long started = metrics.record(ReceiptPipelineMetrics.Stage.QUEUE_WAIT, enqueued);
+            int claimed = receiptRepository.transition(
+                receiptId,
+                Receipt.ProcessingStatus.PENDING,
+                Receipt.ProcessingStatus.PROCESSING,
+                LocalDateTime.now()
+            );
+            if (claimed == 0) {
+                // Already claimed elsewhere, processed, or deleted
+                return;
+            }
+            receiptProcessor.process(receiptId);
+            metrics.record(ReceiptPipelineMetrics.Stage.TOTAL, started);
+        } catch (Exception e) {
+            log.error("Receipt pipeline failed for {}", receiptId, e);
+        } finally {
+            inFlight.remove(receiptId);
+        }
+    }
+}
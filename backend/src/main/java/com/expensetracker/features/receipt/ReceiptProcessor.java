@@ -0,0 +1,174 @@
+package com.expensetracker.features.receipt;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs OCR and field extraction for one claimed receipt. Called from the
+ * pipeline's worker threads; no transaction is held while OCR runs. The
+ * result is written back with one conditional UPDATE at the end, which only
+ * lands while the receipt is still PROCESSING: a receipt deleted, edited
+ * back to another status or requeued meanwhile keeps its newer state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReceiptProcessor {
+
+    private static final int REVIEW_THRESHOLD = 70;
+
+    private final ReceiptRepository receiptRepository;
+    private final ReceiptBlobRepository blobRepository;
+    private final OcrEngine ocrEngine;
+    private final ReceiptPipelineMetrics metrics;
+    private final ReceiptThumbnailer thumbnailer;
+    private final ReceiptTextExtractor textExtractor;
+
+    /**
+     * Process a receipt that has already been claimed (status PROCESSING)
+     */
+    public void process(Long receiptId) {
+        Receipt receipt = receiptRepository.findById(receiptId).orElse(null);
+        if (receipt == null) {
+            return;
+        }
+
+        deriveImages(receipt);
+
+        try {
+            long started = System.nanoTime();
+            String ocrText = performOCR(receipt);
+            receipt.setOcrText(ocrText);
+            started = metrics.record(ReceiptPipelineMetrics.Stage.OCR, started);
+
+            extractReceiptData(receipt, ocrText);
+            metrics.record(ReceiptPipelineMetrics.Stage.EXTRACT, started);
+
+            receipt.setStatus(
+                receipt.getConfidence() < REVIEW_THRESHOLD
+                    ? Receipt.ProcessingStatus.MANUAL_REVIEW_NEEDED
+                    : Receipt.ProcessingStatus.COMPLETED
+            );
+            receipt.setErrorMessage(null);
+            log.info("Receipt {} processed successfully", receipt.getId());
+        } catch (Exception e) {
+            log.error("Failed to process receipt {}", receipt.getId(), e);
+            receipt.setStatus(Receipt.ProcessingStatus.FAILED);
+            receipt.setErrorMessage(e.getMessage());
+        }
+
+        long saving = System.nanoTime();
+        int written = receiptRepository.completeProcessing(
+            receipt.getId(),
+            receipt.getStatus(),
+            receipt.getErrorMessage(),
+            receipt.getOcrText(),
+            receipt.getMerchantName(),
+            receipt.getExtractedAmount(),
+            receipt.getExtractedDate(),
+            receipt.getExtractedCategory(),
+            receipt.getConfidence(),
+            receipt.getThumbnailPath(),
+            receipt.getPreviewPath(),
+            LocalDateTime.now()
+        );
+        if (written == 0) {
+            log.info("Receipt {} changed while it was processed; result dropped", receipt.getId());
+        }
+        metrics.record(ReceiptPipelineMetrics.Stage.PERSIST, saving);
+    }
+
+    /**
+     * Thumbnail and preview; a failure here leaves the receipt usable with
+     * its original image, so it is logged and does not fail the receipt
+     */
+    private void deriveImages(Receipt receipt) {
+        long started = System.nanoTime();
+        try {
+            Map<ReceiptThumbnailer.Variant, Path> variants = thumbnailer.derive(Paths.get(receipt.getImageUrl()));
+            if (!variants.isEmpty()) {
+                receipt.setThumbnailPath(variants.get(ReceiptThumbnailer.Variant.THUMBNAIL).toString());
+                receipt.setPreviewPath(variants.get(ReceiptThumbnailer.Variant.PREVIEW).toString());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to derive images for receipt {}", receipt.getId(), e);
+        }
+        metrics.record(ReceiptPipelineMetrics.Stage.THUMBNAIL, started);
+    }
+
+    /**
+     * OCR text for the receipt's image. Results are cached on the blob, per
+     * engine, so processing or reprocessing identical bytes never runs the
+     * engine twice. Receipts from before content addressing have no hash and
+     * are always recognised afresh.
+     */
+    private String performOCR(Receipt receipt) throws IOException {
+        String hash = receipt.getContentHash();
+        if (hash != null) {
+            Optional<String> cached = blobRepository.findOcrText(hash, ocrEngine.name());
+            if (cached.isPresent()) {
+                metrics.ocrCacheHit();
+                return cached.get();
+            }
+        }
+
+        long started = System.nanoTime();
+        String text = ocrEngine.recognize(Paths.get(receipt.getImageUrl()));
+        metrics.record(ReceiptPipelineMetrics.Stage.OCR_ENGINE, started);
+
+        if (hash != null) {
+            blobRepository.saveOcrText(hash, ocrEngine.name(), text);
+        }
+        return text;
+    }
+
+    /**
+     * Extract structured data from OCR text
+     */
+    private void extractReceiptData(Receipt receipt, String ocrText) {
+        ReceiptTextExtractor.ReceiptFields fields = textExtractor.extract(ocrText);
+        receipt.setMerchantName(fields.merchantName());
+        receipt.setExtractedAmount(fields.amount());
+        // Default to the processing date if the text has none
+        receipt.setExtractedDate(fields.date() != null ? fields.date() : LocalDateTime.now());
+        receipt.setExtractedCategory(fields.category());
+        receipt.setConfidence(calculateConfidence(receipt));
+    }
+
+    /**
+     * Calculate confidence score for OCR extraction
+     */
+    Integer calculateConfidence(Receipt receipt) {
+        int score = 100;
+
+        // Reduce confidence if data is missing
+        if (
+            receipt.getMerchantName() == null ||
+            receipt.getMerchantName().contains("Unknown")
+        ) {
+            score -= 20;
+        }
+        if (receipt.getExtractedAmount() == null) {
+            score -= 30;
+        }
+        if (receipt.getExtractedDate() == null) {
+            score -= 15;
+        }
+        if (
+            receipt.getExtractedCategory() == null ||
+            receipt.getExtractedCategory().equals("Other")
+        ) {
+            score -= 10;
+        }
+
+        // Ensure score is within 0-100
+        return Math.max(0, Math.min(100, score));
+    }
+}
@@ -4,10 +4,13 @@ import com.expensetracker.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -49,6 +52,53 @@ public interface ReceiptRepository extends JpaRepository<Receipt, Long> {
     @Query("SELECT r FROM Receipt r WHERE r.user = :user AND LOWER(r.merchantName) LIKE LOWER(CONCAT('%', :merchantName, '%'))")
     List<Receipt> findByUserAndMerchantNameContaining(@Param("user") User user, @Param("merchantName") String merchantName);
 
+    // Search by free text over merchant and OCR text (FULLTEXT, boolean mode), newest first.
+    // Unset range bounds are passed as NULL; the MATCH keeps the read to matching rows.
+    @Query(value = "SELECT * FROM receipts r WHERE r.user_id = :userId "
+            + "AND MATCH(r.merchant_name, r.ocr_text) AGAINST (:terms IN BOOLEAN MODE) "
+            + "AND (:minAmount IS NULL OR r.extracted_amount >= :minAmount) "
+            + "AND (:maxAmount IS NULL OR r.extracted_amount <= :maxAmount) "
+            + "AND (:from IS NULL OR r.extracted_date >= :from) "
+            + "AND (:to IS NULL OR r.extracted_date < :to) "
+            + "ORDER BY r.created_at DESC, r.id DESC",
+            countQuery = "SELECT COUNT(*) FROM receipts r WHERE r.user_id = :userId "
+            + "AND MATCH(r.merchant_name, r.ocr_text) AGAINST (:terms IN BOOLEAN MODE) "
+            + "AND (:minAmount IS NULL OR r.extracted_amount >= :minAmount) "
+            + "AND (:maxAmount IS NULL OR r.extracted_amount <= :maxAmount) "
+            + "AND (:from IS NULL OR r.extracted_date >= :from) "
+            + "AND (:to IS NULL OR r.extracted_date < :to)",
+            nativeQuery = true)
+    Page<Receipt> searchByText(
+            @Param("userId") Long userId,
+            @Param("terms") String terms,
+            @Param("minAmount") BigDecimal minAmount,
+            @Param("maxAmount") BigDecimal maxAmount,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
+
+    // Search by amount/date range only, newest first
+    @Query(value = "SELECT r FROM Receipt r WHERE r.user = :user "
+            + "AND (:minAmount IS NULL OR r.extractedAmount >= :minAmount) "
+            + "AND (:maxAmount IS NULL OR r.extractedAmount <= :maxAmount) "
+            + "AND (:from IS NULL OR r.extractedDate >= :from) "
+            + "AND (:to IS NULL OR r.extractedDate < :to) "
+            + "ORDER BY r.createdAt DESC, r.id DESC",
+            countQuery = "SELECT COUNT(r) FROM Receipt r WHERE r.user = :user "
+            + "AND (:minAmount IS NULL OR r.extractedAmount >= :minAmount) "
+            + "AND (:maxAmount IS NULL OR r.extractedAmount <= :maxAmount) "
+            + "AND (:from IS NULL OR r.extractedDate >= :from) "
+            + "AND (:to IS NULL OR r.extractedDate < :to)")
+    Page<Receipt> search(
+            @Param("user") User user,
+            @Param("minAmount") BigDecimal minAmount,
+            @Param("maxAmount") BigDecimal maxAmount,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
+
     // Find receipts by category
     @Query("SELECT r FROM Receipt r WHERE r.user = :user AND r.extractedCategory = :category")
     List<Receipt> findByUserAndCategory(@Param("user") User user, @Param("category") String category);
@@ -61,6 +111,10 @@ public interface ReceiptRepository extends JpaRepository<Receipt, Long> {
     @Query("SELECT r FROM Receipt r WHERE r.user = :user AND r.status = 'FAILED' AND r.createdAt >= :since")
     List<Receipt> findFailedReceiptsSince(@Param("user") User user, @Param("since") LocalDateTime since);
 
+    // Receipt count per status for one user; an index-only scan of idx_receipts_user_status
+    @Query("SELECT r.status, COUNT(r) FROM Receipt r WHERE r.user = :user GROUP BY r.status")
+    List<Object[]> countByStatusForUser(@Param("user") User user);
+
     // Get receipt statistics
     @Query("SELECT COUNT(r), AVG(r.confidence), r.status FROM Receipt r WHERE r.user = :user GROUP BY r.status")
     List<Object[]> getReceiptStatisticsByUser(@Param("user") User user);
@@ -72,6 +126,60 @@ public interface ReceiptRepository extends JpaRepository<Receipt, Long> {
     // Check if receipt exists by image URL
     boolean existsByImageUrl(String imageUrl);
 
+    // Same image already uploaded by this user
+    Optional<Receipt> findFirstByUserAndContentHash(User user, String contentHash);
+
     // Find receipts by expense ID
     Optional<Receipt> findByExpenseId(Long expenseId);
+
+    // Processing queue. A receipt is claimed by moving it from one status to another in a
+    // single conditional UPDATE; a return of 0 means another worker got there first.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Receipt r SET r.status = :to, r.updatedAt = :now WHERE r.id = :id AND r.status = :from")
+    int transition(
+            @Param("id") Long id,
+            @Param("from") Receipt.ProcessingStatus from,
+            @Param("to") Receipt.ProcessingStatus to,
+            @Param("now") LocalDateTime now
+    );
+
+    // Writes a worker's result, only while the receipt is still claimed; a return of 0 means it
+    // was deleted, reprocessed or requeued in the meantime and the result is stale
+    @Modifying
+    @Transactional
+    @Query("UPDATE Receipt r SET r.status = :status, r.errorMessage = :errorMessage, r.ocrText = :ocrText, "
+            + "r.merchantName = :merchantName, r.extractedAmount = :amount, r.extractedDate = :date, "
+            + "r.extractedCategory = :category, r.confidence = :confidence, "
+            + "r.thumbnailPath = :thumbnailPath, r.previewPath = :previewPath, r.updatedAt = :now "
+            + "WHERE r.id = :id AND r.status = 'PROCESSING'")
+    int completeProcessing(
+            @Param("id") Long id,
+            @Param("status") Receipt.ProcessingStatus status,
+            @Param("errorMessage") String errorMessage,
+            @Param("ocrText") String ocrText,
+            @Param("merchantName") String merchantName,
+            @Param("amount") BigDecimal amount,
+            @Param("date") LocalDateTime date,
+            @Param("category") String category,
+            @Param("confidence") Integer confidence,
+            @Param("thumbnailPath") String thumbnailPath,
+            @Param("previewPath") String previewPath,
+            @Param("now") LocalDateTime now
+    );
+
+    // Oldest first; pass PageRequest.of(0, n) to fetch at most n ids
+    @Query("SELECT r.id FROM Receipt r WHERE r.status = :status ORDER BY r.createdAt, r.id")
+    List<Long> findIdsByStatus(@Param("status") Receipt.ProcessingStatus status, Pageable pageable);
+
+    // Puts receipts left in PROCESSING by a crashed or restarted worker back in the queue
+    @Modifying
+    @Transactional
+    @Query("UPDATE Receipt r SET r.status = :to, r.updatedAt = :now WHERE r.status = :from AND r.updatedAt < :cutoff")
+    int transitionStale(
+            @Param("from") Receipt.ProcessingStatus from,
+            @Param("to") Receipt.ProcessingStatus to,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("now") LocalDateTime now
+    );
 }
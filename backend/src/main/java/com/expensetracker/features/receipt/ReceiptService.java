@@ -1,32 +1,35 @@
 package com.expensetracker.features.receipt;
 
 import com.expensetracker.entity.User;
+import com.expensetracker.exception.BusinessException;
 import com.expensetracker.exception.ResourceNotFoundException;
 import com.expensetracker.features.expense.Expense;
 import com.expensetracker.features.expense.ExpenseRepository;
+import com.expensetracker.features.expense.ExpenseService;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -37,8 +40,12 @@ public class ReceiptService {
 
     private final ReceiptRepository receiptRepository;
     private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final ReceiptProcessor receiptProcessor;
+    private final ReceiptProcessingPipeline processingPipeline;
+    private final ReceiptStorage receiptStorage;
+    private final TransactionTemplate transactionTemplate;
 
-    private static final String UPLOAD_DIR = "uploads/receipts/";
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
     private static final List<String> ALLOWED_EXTENSIONS = List.of(
         "jpg",
@@ -47,299 +54,48 @@ public class ReceiptService {
         "pdf"
     );
 
-    // Regex patterns for OCR text extraction
-    private static final Pattern AMOUNT_PATTERN = Pattern.compile(
-        "(?:USD|BDT|\\$|৳)?\\s*(\\d+(?:,\\d{3})*(?:\\.\\d{2})?)",
-        Pattern.CASE_INSENSITIVE
-    );
-    private static final Pattern DATE_PATTERN = Pattern.compile(
-        "\\b(\\d{1,2}[/-]\\d{1,2}[/-]\\d{2,4}|\\d{4}[/-]\\d{1,2}[/-]\\d{1,2})\\b"
-    );
-    private static final Pattern MERCHANT_PATTERN = Pattern.compile(
-        "^([A-Z][A-Za-z\\s&',.-]+)$",
-        Pattern.MULTILINE
-    );
+    // Full-text search: innodb_ft_min_token_size defaults to 3
+    private static final int MIN_SEARCH_TERM_LENGTH = 3;
+    private static final int MAX_SEARCH_TERMS = 10;
 
     /**
-     * Upload and process a receipt
+     * Upload a receipt and queue it for OCR. Returns as soon as the row is
+     * saved; the receipt is PENDING until a pipeline worker picks it up.
      */
     public Receipt uploadReceipt(User user, MultipartFile file)
         throws IOException {
         // Validate file
         validateFile(file);
 
-        // Save file
-        String fileName = generateFileName(file.getOriginalFilename());
-        String filePath = saveFile(file, fileName);
+        // Stream to storage while hashing; the same image uploaded again by
+        // this user returns the existing receipt instead of a second copy
+        ReceiptStorage.StagedBlob staged = receiptStorage.stage(file);
+        Optional<Receipt> existing = receiptRepository.findFirstByUserAndContentHash(
+            user,
+            staged.hash()
+        );
+        if (existing.isPresent()) {
+            receiptStorage.discard(staged);
+            return existing.get();
+        }
+        String filePath = receiptStorage.commit(staged);
 
         // Create receipt record
         Receipt receipt = Receipt.builder()
             .user(user)
             .imageUrl(filePath)
+            .contentHash(staged.hash())
             .status(Receipt.ProcessingStatus.PENDING)
             .build();
 
         receipt = receiptRepository.save(receipt);
 
-        // Trigger async OCR processing (in production, use message queue)
-        processReceiptAsync(receipt);
+        // Handed to the pipeline after commit, so workers never see an uncommitted row
+        processingPipeline.submit(receipt.getId());
 
         return receipt;
     }
 
-    /**
-     * Process receipt with OCR (simplified version - in production use Tesseract, Google Vision, AWS Textract)
-     */
-    private void processReceiptAsync(Receipt receipt) {
-        try {
-            receipt.setStatus(Receipt.ProcessingStatus.PROCESSING);
-            receiptRepository.save(receipt);
-
-            // Simulate OCR processing
-            String ocrText = performOCR(receipt.getImageUrl());
-            receipt.setOcrText(ocrText);
-
-            // Extract information from OCR text
-            extractReceiptData(receipt, ocrText);
-
-            receipt.setStatus(Receipt.ProcessingStatus.COMPLETED);
-            log.info("Receipt {} processed successfully", receipt.getId());
-        } catch (Exception e) {
-            log.error("Failed to process receipt {}", receipt.getId(), e);
-            receipt.setStatus(Receipt.ProcessingStatus.FAILED);
-            receipt.setErrorMessage(e.getMessage());
-        }
-
-        receiptRepository.save(receipt);
-    }
-
-    /**
-     * Perform OCR on receipt image (mock implementation)
-     * In production, integrate with:
-     * - Google Cloud Vision API
-     * - AWS Textract
-     * - Azure Computer Vision
-     * - Tesseract OCR
-     */
-    private String performOCR(String imagePath) {
-        // Mock OCR result - replace with actual OCR library
-        return """
-        WALMART SUPERCENTER
-        Store #1234
-        123 Main Street
-        City, State 12345
-
-        Date: 12/15/2024
-        Time: 14:30:25
-
-        GROCERIES
-        Milk                    $4.99
-        Bread                   $2.49
-        Eggs                    $3.99
-        Chicken                $12.99
-
-        SUBTOTAL              $24.46
-        TAX                    $2.20
-        TOTAL                 $26.66
-
-        VISA ****1234
-        Auth: 123456
-
-        Thank you for shopping!
-        """;
-    }
-
-    /**
-     * Extract structured data from OCR text
-     */
-    private void extractReceiptData(Receipt receipt, String ocrText) {
-        // Extract merchant name
-        String merchantName = extractMerchantName(ocrText);
-        receipt.setMerchantName(merchantName);
-
-        // Extract amount
-        BigDecimal amount = extractAmount(ocrText);
-        receipt.setExtractedAmount(amount);
-
-        // Extract date
-        LocalDateTime date = extractDate(ocrText);
-        receipt.setExtractedDate(date);
-
-        // Predict category based on merchant
-        String category = predictCategory(merchantName, ocrText);
-        receipt.setExtractedCategory(category);
-
-        // Calculate confidence score
-        Integer confidence = calculateConfidence(receipt);
-        receipt.setConfidence(confidence);
-
-        // Set status based on confidence
-        if (confidence < 70) {
-            receipt.setStatus(Receipt.ProcessingStatus.MANUAL_REVIEW_NEEDED);
-        }
-    }
-
-    /**
-     * Extract merchant name from OCR text
-     */
-    private String extractMerchantName(String ocrText) {
-        String[] lines = ocrText.split("\\n");
-        for (int i = 0; i < Math.min(5, lines.length); i++) {
-            String line = lines[i].trim();
-            if (!line.isEmpty() && line.length() > 3 && line.length() < 100) {
-                // Simple heuristic: first non-empty line with reasonable length
-                return line;
-            }
-        }
-        return "Unknown Merchant";
-    }
-
-    /**
-     * Extract total amount from OCR text
-     */
-    private BigDecimal extractAmount(String ocrText) {
-        // Look for "TOTAL" followed by amount
-        Pattern totalPattern = Pattern.compile(
-            "TOTAL[:\\s]*(\\$|৳)?\\s*(\\d+(?:,\\d{3})*(?:\\.\\d{2})?)",
-            Pattern.CASE_INSENSITIVE
-        );
-        Matcher matcher = totalPattern.matcher(ocrText);
-
-        if (matcher.find()) {
-            String amountStr = matcher.group(2).replace(",", "");
-            return new BigDecimal(amountStr);
-        }
-
-        // Fallback: find largest amount in text
-        BigDecimal maxAmount = BigDecimal.ZERO;
-        Matcher amountMatcher = AMOUNT_PATTERN.matcher(ocrText);
-        while (amountMatcher.find()) {
-            String amountStr = amountMatcher.group(1).replace(",", "");
-            BigDecimal amount = new BigDecimal(amountStr);
-            if (amount.compareTo(maxAmount) > 0) {
-                maxAmount = amount;
-            }
-        }
-
-        return maxAmount.compareTo(BigDecimal.ZERO) > 0 ? maxAmount : null;
-    }
-
-    /**
-     * Extract date from OCR text
-     */
-    private LocalDateTime extractDate(String ocrText) {
-        Matcher matcher = DATE_PATTERN.matcher(ocrText);
-        if (matcher.find()) {
-            String dateStr = matcher.group(1);
-            try {
-                // Try different date formats
-                DateTimeFormatter[] formatters = {
-                    DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy"),
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-                    DateTimeFormatter.ofPattern("M/d/yy"),
-                    DateTimeFormatter.ofPattern("d/M/yy"),
-                };
-
-                for (DateTimeFormatter formatter : formatters) {
-                    try {
-                        return LocalDateTime.parse(
-                            dateStr + " 00:00:00",
-                            DateTimeFormatter.ofPattern("M/d/yyyy HH:mm:ss")
-                        );
-                    } catch (Exception e) {
-                        continue;
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("Failed to parse date: {}", dateStr);
-            }
-        }
-        return LocalDateTime.now(); // Default to current date if not found
-    }
-
-    /**
-     * Predict category based on merchant name and OCR text
-     */
-    private String predictCategory(String merchantName, String ocrText) {
-        String lowerText = (merchantName + " " + ocrText).toLowerCase();
-
-        if (
-            lowerText.contains("walmart") ||
-            lowerText.contains("grocery") ||
-            lowerText.contains("supermarket") ||
-            lowerText.contains("food")
-        ) {
-            return "Groceries";
-        } else if (
-            lowerText.contains("restaurant") ||
-            lowerText.contains("cafe") ||
-            lowerText.contains("pizza") ||
-            lowerText.contains("burger")
-        ) {
-            return "Dining";
-        } else if (
-            lowerText.contains("gas") ||
-            lowerText.contains("fuel") ||
-            lowerText.contains("shell") ||
-            lowerText.contains("exxon")
-        ) {
-            return "Transportation";
-        } else if (
-            lowerText.contains("pharmacy") ||
-            lowerText.contains("medical") ||
-            lowerText.contains("hospital") ||
-            lowerText.contains("doctor")
-        ) {
-            return "Healthcare";
-        } else if (
-            lowerText.contains("amazon") ||
-            lowerText.contains("shopping") ||
-            lowerText.contains("store")
-        ) {
-            return "Shopping";
-        } else if (
-            lowerText.contains("electric") ||
-            lowerText.contains("utility") ||
-            lowerText.contains("water") ||
-            lowerText.contains("internet")
-        ) {
-            return "Utilities";
-        }
-
-        return "Other";
-    }
-
-    /**
-     * Calculate confidence score for OCR extraction
-     */
-    private Integer calculateConfidence(Receipt receipt) {
-        int score = 100;
-
-        // Reduce confidence if data is missing
-        if (
-            receipt.getMerchantName() == null ||
-            receipt.getMerchantName().contains("Unknown")
-        ) {
-            score -= 20;
-        }
-        if (receipt.getExtractedAmount() == null) {
-            score -= 30;
-        }
-        if (receipt.getExtractedDate() == null) {
-            score -= 15;
-        }
-        if (
-            receipt.getExtractedCategory() == null ||
-            receipt.getExtractedCategory().equals("Other")
-        ) {
-            score -= 10;
-        }
-
-        // Ensure score is within 0-100
-        return Math.max(0, Math.min(100, score));
-    }
-
     /**
      * Link receipt to expense
      */
@@ -402,7 +158,7 @@ public class ReceiptService {
             )
             .build();
 
-        expense = expenseRepository.save(expense);
+        expense = expenseService.recordExpense(expense);
 
         // Link receipt to expense
         receipt.setExpense(expense);
@@ -483,7 +239,7 @@ public class ReceiptService {
         if (category != null) receipt.setExtractedCategory(category);
 
         // Recalculate confidence
-        receipt.setConfidence(calculateConfidence(receipt));
+        receipt.setConfidence(receiptProcessor.calculateConfidence(receipt));
         receipt.setStatus(Receipt.ProcessingStatus.COMPLETED);
 
         return receiptRepository.save(receipt);
@@ -495,46 +251,38 @@ public class ReceiptService {
     public void deleteReceipt(Long id, User user) {
         Receipt receipt = getReceipt(id, user);
 
-        // Delete file
-        try {
-            Path filePath = Paths.get(receipt.getImageUrl());
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            log.error(
-                "Failed to delete receipt file: {}",
-                receipt.getImageUrl(),
-                e
-            );
+        // Release the shared blob; receipts from before content addressing own their file
+        if (receipt.getContentHash() != null) {
+            receiptStorage.release(receipt.getContentHash());
+        } else {
+            receiptStorage.deleteAfterCommit(Paths.get(receipt.getImageUrl()));
         }
 
         receiptRepository.delete(receipt);
     }
 
     /**
-     * Get receipt statistics
+     * Get receipt statistics: one grouped count over the user's receipts.
+     * The total includes receipts currently PROCESSING.
      */
     @Transactional(readOnly = true)
     public ReceiptStatistics getStatistics(User user) {
-        List<Object[]> stats = receiptRepository.getReceiptStatisticsByUser(
-            user
+        Map<Receipt.ProcessingStatus, Long> counts = new EnumMap<>(
+            Receipt.ProcessingStatus.class
         );
+        long total = 0;
+        for (Object[] row : receiptRepository.countByStatusForUser(user)) {
+            long count = (Long) row[1];
+            counts.put((Receipt.ProcessingStatus) row[0], count);
+            total += count;
+        }
 
-        long total = receiptRepository.count();
-        long completed = receiptRepository.countByUserAndStatus(
-            user,
-            Receipt.ProcessingStatus.COMPLETED
-        );
-        long pending = receiptRepository.countByUserAndStatus(
-            user,
-            Receipt.ProcessingStatus.PENDING
-        );
-        long failed = receiptRepository.countByUserAndStatus(
-            user,
-            Receipt.ProcessingStatus.FAILED
-        );
-        long needsReview = receiptRepository.countByUserAndStatus(
-            user,
-            Receipt.ProcessingStatus.MANUAL_REVIEW_NEEDED
+        long completed = counts.getOrDefault(Receipt.ProcessingStatus.COMPLETED, 0L);
+        long pending = counts.getOrDefault(Receipt.ProcessingStatus.PENDING, 0L);
+        long failed = counts.getOrDefault(Receipt.ProcessingStatus.FAILED, 0L);
+        long needsReview = counts.getOrDefault(
+            Receipt.ProcessingStatus.MANUAL_REVIEW_NEEDED,
+            0L
         );
 
         return new ReceiptStatistics(
@@ -572,33 +320,39 @@ public class ReceiptService {
         }
     }
 
-    private String generateFileName(String originalFilename) {
-        String extension = getFileExtension(originalFilename);
-        return UUID.randomUUID().toString() + "." + extension;
-    }
-
     private String getFileExtension(String filename) {
         int lastDotIndex = filename.lastIndexOf(".");
         return lastDotIndex > 0 ? filename.substring(lastDotIndex + 1) : "";
     }
 
-    private String saveFile(MultipartFile file, String fileName)
-        throws IOException {
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+    // Blobs are stored without an extension, so sniff the few formats uploads allow
+    private MediaType detectContentType(Path path) throws IOException {
+        byte[] header = new byte[4];
+        int read;
+        try (InputStream in = Files.newInputStream(path)) {
+            read = in.readNBytes(header, 0, header.length);
         }
-
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(
-            file.getInputStream(),
-            filePath,
-            StandardCopyOption.REPLACE_EXISTING
-        );
-
-        return filePath.toString();
+        if (read >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (read == 4 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return MediaType.IMAGE_PNG;
+        }
+        if (read == 4 && header[0] == '%' && header[1] == 'P' && header[2] == 'D' && header[3] == 'F') {
+            return MediaType.APPLICATION_PDF;
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
     }
 
+    // Stored image of a receipt; etag is null for receipts uploaded before content addressing
+    public record ReceiptImage(
+        Path path,
+        String etag,
+        long lastModified,
+        long size,
+        MediaType contentType
+    ) {}
+
     // DTO for statistics
     public record ReceiptStatistics(
         long total,
@@ -626,7 +380,7 @@ public class ReceiptService {
     }
 
     /**
-     * Process a receipt manually
+     * Queue a receipt for processing again
      */
     @Transactional
     public Receipt processReceipt(User user, Long id) {
@@ -638,15 +392,55 @@ public class ReceiptService {
             );
         }
 
-        receipt.setStatus(Receipt.ProcessingStatus.PROCESSING);
+        receipt.setStatus(Receipt.ProcessingStatus.PENDING);
         receipt = receiptRepository.save(receipt);
 
-        // Process asynchronously
-        processReceiptAsync(receipt);
+        processingPipeline.submit(receipt.getId());
 
         return receipt;
     }
 
+    /**
+     * Locate a receipt's stored image for the owner. Content-addressed
+     * receipts get a strong ETag from their hash; the bytes behind a
+     * receipt never change, so the ETag stays valid for its lifetime.
+     * A variant that has not been derived (yet, or ever for a PDF) falls
+     * back to the original.
+     */
+    @Transactional(readOnly = true)
+    public ReceiptImage getReceiptImage(
+        User user,
+        Long id,
+        ReceiptThumbnailer.Variant variant
+    ) throws IOException {
+        Receipt receipt = getReceiptById(user, id);
+
+        String stored = receipt.getImageUrl();
+        String etag = receipt.getContentHash();
+        String variantPath = variant == ReceiptThumbnailer.Variant.THUMBNAIL
+            ? receipt.getThumbnailPath()
+            : variant == ReceiptThumbnailer.Variant.PREVIEW
+                ? receipt.getPreviewPath()
+                : null;
+        if (variantPath != null) {
+            stored = variantPath;
+            etag = etag != null ? etag + "-" + variant.name().toLowerCase() : null;
+        }
+
+        Path path = Paths.get(stored);
+        if (!Files.isReadable(path)) {
+            throw new ResourceNotFoundException("Receipt image not found");
+        }
+
+        return new ReceiptImage(
+            path,
+            etag,
+            Files.getLastModifiedTime(path).toMillis(),
+            Files.size(path),
+            detectContentType(path)
+        );
+    }
+
     /**
      * Create expense from receipt with custom data
      */
@@ -679,7 +473,7 @@ public class ReceiptService {
             )
             .build();
 
-        expense = expenseRepository.save(expense);
+        expense = expenseService.recordExpense(expense);
 
         // Link receipt to expense
         receipt.setLinkedExpenseId(expense.getId());
@@ -727,6 +521,7 @@ public class ReceiptService {
     /**
      * Get receipt statistics
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getReceiptStats(User user) {
         ReceiptStatistics stats = getStatistics(user);
 
@@ -760,22 +555,32 @@ public class ReceiptService {
         receipt.setStatus(Receipt.ProcessingStatus.PENDING);
         receipt = receiptRepository.save(receipt);
 
-        // Process asynchronously
-        processReceiptAsync(receipt);
+        processingPipeline.submit(receipt.getId());
 
         return receipt;
     }
 
     /**
-     * Bulk upload receipts
+     * Bulk upload receipts. Each file is saved in its own short transaction
+     * (no transaction spans the batch), so one bad file does not roll back
+     * the others and each receipt is queued as soon as its transaction
+     * commits, while the rest of the batch is still uploading.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Receipt> bulkUploadReceipts(User user, MultipartFile[] files) {
         List<Receipt> receipts = new ArrayList<>();
 
         for (MultipartFile file : files) {
             try {
-                Receipt receipt = uploadReceipt(user, file);
+                // Through the template: a direct call would bypass the proxy
+                // and run without a transaction of its own
+                Receipt receipt = transactionTemplate.execute(status -> {
+                    try {
+                        return uploadReceipt(user, file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
                 receipts.add(receipt);
             } catch (Exception e) {
                 log.error(
@@ -790,49 +595,76 @@ public class ReceiptService {
     }
 
     /**
-     * Search receipts
+     * Search all of a user's receipts, linked to an expense or not, newest
+     * first. Free text goes through the FULLTEXT index on merchant and OCR
+     * text; amounts and dates are range predicates in the same query. The
+     * date range is inclusive of both days.
      */
-    public List<Receipt> searchReceipts(
+    @Transactional(readOnly = true)
+    public Page<Receipt> searchReceipts(
         User user,
-        String merchantName,
-        Double minAmount,
-        Double maxAmount,
+        String text,
+        BigDecimal minAmount,
+        BigDecimal maxAmount,
         String startDate,
-        String endDate
+        String endDate,
+        Pageable pageable
     ) {
-        List<Receipt> receipts = getUserReceipts(user);
-
-        return receipts
-            .stream()
-            .filter(r -> {
-                boolean matches = true;
-
-                if (merchantName != null && !merchantName.isEmpty()) {
-                    matches =
-                        matches &&
-                        r.getMerchantName() != null &&
-                        r
-                            .getMerchantName()
-                            .toLowerCase()
-                            .contains(merchantName.toLowerCase());
-                }
-
-                if (minAmount != null && r.getExtractedAmount() != null) {
-                    matches =
-                        matches &&
-                        r.getExtractedAmount().doubleValue() >= minAmount;
-                }
+        LocalDateTime from = startDate != null && !startDate.isBlank()
+            ? parseSearchDate(startDate).atStartOfDay()
+            : null;
+        LocalDateTime to = endDate != null && !endDate.isBlank()
+            ? parseSearchDate(endDate).plusDays(1).atStartOfDay()
+            : null;
+
+        if (text == null || text.isBlank()) {
+            return receiptRepository.search(user, minAmount, maxAmount, from, to, pageable);
+        }
+        return receiptRepository.searchByText(
+            user.getId(),
+            toFullTextTerms(text),
+            minAmount,
+            maxAmount,
+            from,
+            to,
+            pageable
+        );
+    }
 
-                if (maxAmount != null && r.getExtractedAmount() != null) {
-                    matches =
-                        matches &&
-                        r.getExtractedAmount().doubleValue() <= maxAmount;
+    /**
+     * Turn user input into a boolean-mode query: every word required, as a
+     * prefix ("wal mart" -> "+wal* +mart*"). Operators in the input are
+     * dropped, and so are words shorter than InnoDB's minimum token size,
+     * which the index cannot match.
+     */
+    private String toFullTextTerms(String text) {
+        StringBuilder terms = new StringBuilder();
+        int count = 0;
+        int i = 0;
+        while (i < text.length() && count < MAX_SEARCH_TERMS) {
+            while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i - start >= MIN_SEARCH_TERM_LENGTH) {
+                if (count++ > 0) {
+                    terms.append(' ');
                 }
+                terms.append('+').append(text, start, i).append('*');
+            }
+        }
+        if (count == 0) {
+            throw new BusinessException(
+                "Search text needs a word of at least " + MIN_SEARCH_TERM_LENGTH + " letters or digits"
+            );
+        }
+        return terms.toString();
+    }
 
-                // Date filtering can be added here if needed
-
-                return matches;
-            })
-            .collect(Collectors.toList());
+    private LocalDate parseSearchDate(String value) {
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new BusinessException("Invalid date (expected yyyy-MM-dd): " + value);
+        }
     }
 }
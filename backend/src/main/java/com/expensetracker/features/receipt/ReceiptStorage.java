@@ -0,0 +1,206 @@
+package com.expensetracker.features.receipt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Content-addressed store for receipt images. An upload is streamed once
+ * through a fixed-size buffer into a temp file while its SHA-256 is computed,
+ * then moved to {@code <storage-dir>/<h0h1>/<h2h3>/<hash>}. Identical bytes
+ * are stored once; receipt_blobs.ref_count tracks how many receipts share a
+ * file, and the file is deleted when the last one is released. Files are
+ * only deleted once the database agrees: after the release commits, or
+ * after the upload that stored them rolls back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReceiptStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_DIR = ".tmp";
+
+    private final ReceiptBlobRepository blobRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.receipts.storage-dir:uploads/receipts}")
+    private String storageDir;
+
+    /** An upload written to a temp file and hashed, not yet referenced by any receipt. */
+    public record StagedBlob(String hash, long size, Path tempFile) {}
+
+    /**
+     * Stream the upload to a temp file, hashing as it goes
+     */
+    public StagedBlob stage(MultipartFile file) throws IOException {
+        Path tempDir = Paths.get(storageDir, TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+
+        MessageDigest digest = sha256();
+        byte[] chunk = new byte[BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        long size = 0;
+
+        try (
+            InputStream in = file.getInputStream();
+            FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)
+        ) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                size += read;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        return new StagedBlob(HexFormat.of().formatHex(digest.digest()), size, temp);
+    }
+
+    /**
+     * Reference a staged upload from a new receipt and return the stored
+     * path. The reference is counted first so that, under the row lock, a
+     * concurrent release cannot delete the file after we decide to reuse it.
+     */
+    @Transactional
+    public String commit(StagedBlob staged) throws IOException {
+        Path target = blobPath(staged.hash());
+        blobRepository.addReference(staged.hash(), target.toString(), staged.size());
+
+        if (Files.exists(target)) {
+            Files.deleteIfExists(staged.tempFile());
+        } else {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(staged.tempFile(), target, StandardCopyOption.ATOMIC_MOVE);
+                // The file is ours; if the reference is rolled back, nothing else points at it
+                afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK,
+                        () -> deleteIfUnreferenced(staged.hash()));
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(staged.tempFile());
+            }
+        }
+        return target.toString();
+    }
+
+    /**
+     * Drop a staged upload that will not be stored (e.g. a duplicate)
+     */
+    public void discard(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(staged.tempFile());
+        } catch (IOException e) {
+            log.warn("Failed to delete temp upload {}", staged.tempFile(), e);
+        }
+    }
+
+    /**
+     * Release one receipt's reference; deletes the file with the last one,
+     * once the release has committed
+     */
+    @Transactional
+    public void release(String hash) {
+        blobRepository.removeReference(hash);
+        if (blobRepository.deleteIfUnreferenced(hash) == 0) {
+            return;
+        }
+        afterCompletion(TransactionSynchronization.STATUS_COMMITTED, () -> deleteIfUnreferenced(hash));
+    }
+
+    /**
+     * Delete a file no blob tracks (receipts from before content addressing)
+     * once the current transaction has committed
+     */
+    public void deleteAfterCommit(Path path) {
+        afterCompletion(TransactionSynchronization.STATUS_COMMITTED, () -> deleteWithVariants(path));
+    }
+
+    /**
+     * Delete a blob's files unless a receipt references it again. Runs in its
+     * own transaction under a lock on the blob row, so a concurrent commit of
+     * the same bytes either finishes first (and the file is kept) or waits and
+     * then finds the file gone and stores its own copy.
+     */
+    private void deleteIfUnreferenced(String hash) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            if (blobRepository.findByHashForUpdate(hash).isEmpty()) {
+                deleteWithVariants(blobPath(hash));
+            }
+        });
+    }
+
+    /**
+     * Run the task once the current transaction has completed with the given
+     * status, or right away when there is none
+     */
+    private static void afterCompletion(int status, Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completed) {
+                if (completed == status) {
+                    task.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Delete an image file together with its derived thumbnail and preview
+     */
+    public void deleteWithVariants(Path path) {
+        try {
+            Files.deleteIfExists(path);
+            for (ReceiptThumbnailer.Variant variant : ReceiptThumbnailer.Variant.values()) {
+                Files.deleteIfExists(variant.pathFor(path));
+            }
+        } catch (IOException e) {
+            log.error("Failed to delete receipt image {}", path, e);
+        }
+    }
+
+    private Path blobPath(String hash) {
+        return Paths.get(storageDir, hash.substring(0, 2), hash.substring(2, 4), hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.expensetracker.features.receipt;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pulls merchant, total, date and category out of OCR text in one pass.
+ * Every char goes through the category keyword automaton once, and each
+ * line is tokenised once as it ends for the merchant, TOTAL, date and
+ * amount rules. No regex, no lower-cased copy of the text and no per-call
+ * dictionaries or formatters; the only allocations are the results.
+ * Stateless and thread-safe.
+ */
+@Component
+public class ReceiptTextExtractor {
+
+    public record ReceiptFields(
+        String merchantName,
+        BigDecimal amount,
+        LocalDateTime date,
+        String category
+    ) {}
+
+    private static final String UNKNOWN_MERCHANT = "Unknown Merchant";
+    private static final String OTHER = "Other";
+    private static final int MERCHANT_LINES = 5;
+    private static final int MAX_AMOUNT_DIGITS = 15;
+    private static final char[] TOTAL = { 't', 'o', 't', 'a', 'l' };
+
+    // Category dictionaries, in priority order: the first category with a keyword in the text wins
+    private static final List<String> CATEGORIES = List.of(
+        "Groceries",
+        "Dining",
+        "Transportation",
+        "Healthcare",
+        "Shopping",
+        "Utilities"
+    );
+    private static final KeywordAutomaton KEYWORDS = KeywordAutomaton.build(
+        List.of(
+            List.of("walmart", "grocery", "supermarket", "food"),
+            List.of("restaurant", "cafe", "pizza", "burger"),
+            List.of("gas", "fuel", "shell", "exxon"),
+            List.of("pharmacy", "medical", "hospital", "doctor"),
+            List.of("amazon", "shopping", "store"),
+            List.of("electric", "utility", "water", "internet")
+        )
+    );
+
+    public ReceiptFields extract(String text) {
+        Scan scan = new Scan();
+        int state = KeywordAutomaton.ROOT;
+        long categories = 0;
+        int lineStart = 0;
+        int lineNumber = 0;
+        int length = text.length();
+
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : '\n';
+            state = KEYWORDS.step(state, c);
+            categories |= KEYWORDS.matches(state);
+            if (c == '\n') {
+                scanLine(text, lineStart, i, lineNumber++, scan);
+                lineStart = i + 1;
+            }
+        }
+
+        long cents = scan.totalCents >= 0 ? scan.totalCents : scan.maxCents;
+        return new ReceiptFields(
+            scan.merchant != null ? scan.merchant : UNKNOWN_MERCHANT,
+            cents > 0 ? BigDecimal.valueOf(cents, 2) : null,
+            scan.date,
+            categories != 0 ? CATEGORIES.get(Long.numberOfTrailingZeros(categories)) : OTHER
+        );
+    }
+
+    // Results collected while scanning lines
+    private static final class Scan {
+        String merchant;
+        long totalCents = -1;
+        long maxCents;
+        LocalDateTime date;
+        // Out-parameters of readAmount
+        long amountCents;
+        int amountEnd;
+    }
+
+    private void scanLine(String text, int start, int end, int lineNumber, Scan scan) {
+        // Merchant: first line among the first few that looks like a name
+        if (scan.merchant == null && lineNumber < MERCHANT_LINES) {
+            int from = start;
+            int to = end;
+            while (from < to && text.charAt(from) <= ' ') from++;
+            while (to > from && text.charAt(to - 1) <= ' ') to--;
+            if (to - from > 3 && to - from < 100) {
+                scan.merchant = text.substring(from, to);
+            }
+        }
+
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            boolean wordStart = i == start || !isWordChar(text.charAt(i - 1));
+
+            if (isAsciiLetter(c)) {
+                // TOTAL as a word of its own, so SUBTOTAL does not count
+                if (scan.totalCents < 0 && wordStart && startsWithTotal(text, i, end)) {
+                    int j = i + TOTAL.length;
+                    while (j < end && (text.charAt(j) == ':' || Character.isWhitespace(text.charAt(j)))) j++;
+                    if (j < end && (text.charAt(j) == '$' || text.charAt(j) == '৳')) j++;
+                    while (j < end && Character.isWhitespace(text.charAt(j))) j++;
+                    if (readAmount(text, j, end, scan)) {
+                        scan.totalCents = scan.amountCents;
+                        i = scan.amountEnd;
+                        continue;
+                    }
+                }
+                i++;
+            } else if (isDigit(c)) {
+                if (scan.date == null && wordStart) {
+                    int dateEnd = readDate(text, i, end, scan);
+                    if (dateEnd > 0) {
+                        i = dateEnd;
+                        continue;
+                    }
+                }
+                // Any other number is a candidate for the largest-amount fallback
+                readAmount(text, i, end, scan);
+                scan.maxCents = Math.max(scan.maxCents, scan.amountCents);
+                i = scan.amountEnd;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Reads digits with optional ,ddd groups and an optional .dd fraction
+     * starting at i. Sets amountCents (0 when too long to be an amount) and
+     * amountEnd, and returns whether there was a number at all.
+     */
+    private boolean readAmount(String text, int i, int end, Scan scan) {
+        long whole = 0;
+        int digits = 0;
+        int j = i;
+        while (j < end && isDigit(text.charAt(j))) {
+            whole = whole * 10 + (text.charAt(j++) - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            scan.amountCents = 0;
+            scan.amountEnd = i;
+            return false;
+        }
+        while (j + 3 < end && text.charAt(j) == ',' && isDigit(text.charAt(j + 1)) && isDigit(text.charAt(j + 2)) && isDigit(text.charAt(j + 3))) {
+            whole = whole * 1000 + (text.charAt(j + 1) - '0') * 100 + (text.charAt(j + 2) - '0') * 10 + (text.charAt(j + 3) - '0');
+            digits += 3;
+            j += 4;
+        }
+        int fraction = 0;
+        if (j + 2 < end && text.charAt(j) == '.' && isDigit(text.charAt(j + 1)) && isDigit(text.charAt(j + 2))) {
+            fraction = (text.charAt(j + 1) - '0') * 10 + (text.charAt(j + 2) - '0');
+            j += 3;
+        }
+        scan.amountCents = digits <= MAX_AMOUNT_DIGITS ? whole * 100 + fraction : 0;
+        scan.amountEnd = j;
+        return true;
+    }
+
+    /**
+     * Reads d{1,2}[/-]d{1,2}[/-]d{2,4} (month first, then day first) or
+     * d{4}[/-]d{1,2}[/-]d{1,2} at i, ending on a word boundary. Sets the
+     * date and returns the end index, or -1 if there is no valid date here.
+     */
+    private int readDate(String text, int i, int end, Scan scan) {
+        int firstEnd = digitsEnd(text, i, end);
+        if (!isSeparator(text, firstEnd, end)) return -1;
+        int secondEnd = digitsEnd(text, firstEnd + 1, end);
+        if (!isSeparator(text, secondEnd, end)) return -1;
+        int thirdEnd = digitsEnd(text, secondEnd + 1, end);
+        if (thirdEnd < end && isWordChar(text.charAt(thirdEnd))) return -1;
+
+        int first = number(text, i, firstEnd);
+        int second = number(text, firstEnd + 1, secondEnd);
+        int third = number(text, secondEnd + 1, thirdEnd);
+        int firstLength = firstEnd - i;
+        int secondLength = secondEnd - firstEnd - 1;
+        int thirdLength = thirdEnd - secondEnd - 1;
+
+        LocalDateTime date = null;
+        if (firstLength == 4 && between(secondLength, 1, 2) && between(thirdLength, 1, 2)) {
+            date = date(first, second, third);
+        } else if (between(firstLength, 1, 2) && between(secondLength, 1, 2) && (thirdLength == 2 || thirdLength == 4)) {
+            int year = thirdLength == 2 ? 2000 + third : third;
+            date = date(year, first, second);
+            if (date == null) {
+                date = date(year, second, first);
+            }
+        }
+        if (date == null) return -1;
+        scan.date = date;
+        return thirdEnd;
+    }
+
+    // End of a run of at most 5 digits; longer runs then fail the word-boundary check
+    private static int digitsEnd(String text, int i, int end) {
+        int j = i;
+        while (j < end && j - i < 5 && isDigit(text.charAt(j))) j++;
+        return j;
+    }
+
+    private static int number(String text, int from, int to) {
+        int value = 0;
+        for (int k = from; k < to; k++) {
+            value = value * 10 + (text.charAt(k) - '0');
+        }
+        return value;
+    }
+
+    private static boolean isSeparator(String text, int i, int end) {
+        return i < end && (text.charAt(i) == '/' || text.charAt(i) == '-');
+    }
+
+    private LocalDateTime date(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, 0, 0);
+    }
+
+    private boolean startsWithTotal(String text, int i, int end) {
+        if (end - i < TOTAL.length) return false;
+        for (int k = 0; k < TOTAL.length; k++) {
+            if ((text.charAt(i + k) | 0x20) != TOTAL[k]) return false;
+        }
+        return true;
+    }
+
+    private static boolean between(int value, int min, int max) {
+        return value >= min && value <= max;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWordChar(char c) {
+        return isAsciiLetter(c) || isDigit(c) || c == '_';
+    }
+}
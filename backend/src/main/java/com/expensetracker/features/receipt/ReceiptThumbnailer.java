@@ -0,0 +1,166 @@
+package com.expensetracker.features.receipt;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives downscaled JPEGs of a receipt image with plain ImageIO. The
+ * original is decoded once, subsampled by the reader to roughly twice the
+ * preview size so a 10MB photo never expands to a full-resolution raster,
+ * then scaled down in halving steps for each variant.
+ */
+@Component
+@Slf4j
+public class ReceiptThumbnailer {
+
+    private static final float JPEG_QUALITY = 0.8f;
+
+    public enum Variant {
+        THUMBNAIL(256, ".thumb.jpg"),
+        PREVIEW(1024, ".preview.jpg");
+
+        private final int maxSide;
+        private final String suffix;
+
+        Variant(int maxSide, String suffix) {
+            this.maxSide = maxSide;
+            this.suffix = suffix;
+        }
+
+        /** Where this variant of an original is stored: next to it, with a suffix */
+        public Path pathFor(Path original) {
+            return original.resolveSibling(original.getFileName() + suffix);
+        }
+    }
+
+    /**
+     * Write every variant of the original and return their paths. Variants
+     * that already exist (a blob shared by several receipts) are reused.
+     * Returns an empty map for files ImageIO cannot decode, such as PDFs.
+     */
+    public Map<Variant, Path> derive(Path original) throws IOException {
+        Map<Variant, Path> paths = new EnumMap<>(Variant.class);
+        boolean missing = false;
+        for (Variant variant : Variant.values()) {
+            Path path = variant.pathFor(original);
+            paths.put(variant, path);
+            missing |= !Files.exists(path);
+        }
+        if (!missing) {
+            return paths;
+        }
+
+        BufferedImage source = decode(original, Variant.PREVIEW.maxSide * 2);
+        if (source == null) {
+            return Map.of();
+        }
+
+        // Largest first, so each smaller variant is scaled from the previous one
+        BufferedImage current = source;
+        for (Variant variant : new Variant[] { Variant.PREVIEW, Variant.THUMBNAIL }) {
+            current = downscale(current, variant.maxSide);
+            Path path = paths.get(variant);
+            if (!Files.exists(path)) {
+                writeJpeg(current, path);
+            }
+        }
+        return paths;
+    }
+
+    private BufferedImage decode(Path original, int targetSide) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longest / targetSide);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage downscale(BufferedImage image, int maxSide) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) maxSide / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Halve until within 2x of the target; one bilinear pass from far above aliases badly
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        // RGB with a white background: JPEG has no alpha channel
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path path) throws IOException {
+        // Written to a temp file and moved, so a concurrent worker on the same blob never sees a partial file
+        Path temp = Files.createTempFile(path.getParent(), "variant-", ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            log.debug("Variant {} written concurrently", path);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.expensetracker.features.receipt;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local, offline OCR through the tesseract command-line tool (tesseract-ocr
+ * package). One process per image; concurrency is bounded by the pipeline's
+ * worker count. Output goes to temp files rather than pipes so the timeout
+ * holds even if tesseract stops producing output.
+ */
+@Component
+@ConditionalOnProperty(name = "app.receipts.ocr.engine", havingValue = "tesseract")
+public class TesseractOcrEngine implements OcrEngine {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Value("${app.receipts.ocr.tesseract.command:tesseract}")
+    private String command;
+
+    @Value("${app.receipts.ocr.tesseract.languages:eng}")
+    private String languages;
+
+    @Value("${app.receipts.ocr.tesseract.timeout-seconds:60}")
+    private long timeoutSeconds;
+
+    @Override
+    public String name() {
+        return "tesseract";
+    }
+
+    @Override
+    public String recognize(Path image) throws IOException {
+        Path stdout = Files.createTempFile("ocr-", ".txt");
+        Path stderr = Files.createTempFile("ocr-", ".err");
+        try {
+            // --psm 4: a single column of text of variable sizes, which is how receipts are laid out
+            Process process = new ProcessBuilder(
+                command,
+                image.toAbsolutePath().toString(),
+                "stdout",
+                "-l",
+                languages,
+                "--psm",
+                "4"
+            )
+                .redirectOutput(stdout.toFile())
+                .redirectError(stderr.toFile())
+                .start();
+
+            if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("OCR timed out after " + timeoutSeconds + "s");
+            }
+            if (process.exitValue() != 0) {
+                String error = Files.readString(stderr, StandardCharsets.UTF_8).strip();
+                if (error.length() > MAX_ERROR_LENGTH) {
+                    error = error.substring(0, MAX_ERROR_LENGTH);
+                }
+                throw new IOException("OCR failed (exit " + process.exitValue() + "): " + error);
+            }
+            return Files.readString(stdout, StandardCharsets.UTF_8);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("OCR interrupted", e);
+        } finally {
+            Files.deleteIfExists(stdout);
+            Files.deleteIfExists(stderr);
+        }
+    }
+}
@@ -457,9 +457,9 @@ public class SharedExpenseService {
         }
 
         /**
-         * Calculate participant shares based on split type
+         * Calculate participant shares based on split type (package-private for benchmarks)
          */
-        private List<SharedExpenseParticipant> calculateParticipantShares(
+        List<SharedExpenseParticipant> calculateParticipantShares(
                         SharedExpenseDTO dto,
                         BigDecimal totalAmount,
                         SharedExpense sharedExpense) {
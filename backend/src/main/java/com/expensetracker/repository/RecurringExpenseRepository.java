@@ -2,10 +2,16 @@ package com.expensetracker.repository;
 
 import com.expensetracker.entity.RecurringExpense;
 import com.expensetracker.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,6 +22,21 @@ public interface RecurringExpenseRepository extends JpaRepository<RecurringExpen
 
     List<RecurringExpense> findByActiveAndNextDueDateLessThanEqual(Boolean active, LocalDate date);
 
+    // The scheduler walks the due schedules of one user partition (user id mod partitions) in id order;
+    // pass PageRequest.of(0, n) for a chunk of n ids
+    @Query("SELECT r.id FROM RecurringExpense r WHERE r.active = true AND r.nextDueDate <= :date "
+            + "AND MOD(r.user.id, :partitions) = :partition AND r.id > :afterId ORDER BY r.id")
+    List<Long> findDueIdsAfter(@Param("date") LocalDate date,
+                               @Param("partitions") int partitions,
+                               @Param("partition") int partition,
+                               @Param("afterId") Long afterId,
+                               Pageable pageable);
+
+    // Row-locks a chunk of schedules (in id order, so concurrent chunks cannot deadlock) until commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringExpense r WHERE r.id IN :ids ORDER BY r.id")
+    List<RecurringExpense> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
     // New methods for nudge service
     List<RecurringExpense> findByUser(User user);
 
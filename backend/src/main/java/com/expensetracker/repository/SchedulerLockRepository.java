@@ -0,0 +1,48 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Each statement commits on its own, even when called from inside a job's
+ * transaction, so other nodes see a lease as soon as it is taken. All times
+ * come from the database clock.
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Take over an expired lease
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "UPDATE scheduler_locks SET locked_until = TIMESTAMPADD(SECOND, :seconds, NOW(6)), "
+            + "locked_at = NOW(6), locked_by = :node "
+            + "WHERE name = :name AND locked_until <= NOW(6)", nativeQuery = true)
+    int takeExpired(@Param("name") String name, @Param("node") String node, @Param("seconds") long seconds);
+
+    // First lease on a name; a concurrent insert by another node wins and this returns 0
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT IGNORE INTO scheduler_locks (name, locked_until, locked_at, locked_by) "
+            + "VALUES (:name, TIMESTAMPADD(SECOND, :seconds, NOW(6)), NOW(6), :node)", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("node") String node, @Param("seconds") long seconds);
+
+    // Push out a lease no other node has taken over (it may have run out meanwhile)
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "UPDATE scheduler_locks SET locked_until = TIMESTAMPADD(SECOND, :seconds, NOW(6)) "
+            + "WHERE name = :name AND locked_by = :node", nativeQuery = true)
+    int extend(@Param("name") String name, @Param("node") String node, @Param("seconds") long seconds);
+
+    // End a lease, but no earlier than minSeconds after it was taken
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "UPDATE scheduler_locks SET locked_until = GREATEST(NOW(6), TIMESTAMPADD(SECOND, :minSeconds, locked_at)) "
+            + "WHERE name = :name AND locked_by = :node", nativeQuery = true)
+    int release(@Param("name") String name, @Param("node") String node, @Param("minSeconds") long minSeconds);
+}
@@ -1,8 +1,13 @@
 package com.expensetracker.service;
 
-import com.expensetracker.features.expense.Expense;
+import com.expensetracker.features.category.Category;
+import com.expensetracker.features.category.CategoryRepository;
+import com.expensetracker.features.expense.DailyExpenseRollup;
 import com.expensetracker.features.expense.ExpenseRepository;
+import com.expensetracker.features.expense.ExpenseRollupService;
+import com.expensetracker.features.expense.ExpenseSummary;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -13,27 +18,41 @@ import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Spending reports. Aggregates are read from the daily rollup table, so the
+ * cost of a report depends on the number of days in the range rather than
+ * the number of transactions.
+ */
 @Service
 public class AnalyticsService {
 
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    @Autowired
+    private ExpenseRollupService rollupService;
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
     public Map<String, Object> getMonthlyReport(Long userId, int year, int month) {
         LocalDate startDate = LocalDate.of(year, month, 1);
         LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
+        List<DailyExpenseRollup> rollups = rollupService.getRollups(userId, startDate, endDate);
+        Map<Long, String> categoryNames = getCategoryNames(rollups);
 
         Map<String, Object> report = new HashMap<>();
         report.put("period", YearMonth.of(year, month).toString());
-        report.put("totalExpenses", calculateTotal(expenses));
-        report.put("transactionCount", expenses.size());
-        report.put("categoryBreakdown", getCategoryBreakdown(expenses));
-        report.put("dailyTotals", getDailyTotals(expenses, startDate, endDate));
-        report.put("averagePerDay", calculateAveragePerDay(expenses, startDate, endDate));
-        report.put("topExpenses", getTopExpenses(expenses, 5));
-        report.put("weekdayVsWeekend", getWeekdayVsWeekend(expenses));
+        report.put("totalExpenses", calculateTotal(rollups));
+        report.put("transactionCount", calculateCount(rollups));
+        report.put("categoryBreakdown", getCategoryBreakdown(rollups, categoryNames));
+        report.put("dailyTotals", getDailyTotals(rollups, startDate, endDate));
+        report.put("averagePerDay", calculateAveragePerDay(rollups, startDate, endDate));
+        report.put("topExpenses", getTopExpenses(userId, startDate, endDate, 5));
+        report.put("weekdayVsWeekend", getWeekdayVsWeekend(rollups));
 
         return report;
     }
@@ -42,16 +61,17 @@ public class AnalyticsService {
         LocalDate startDate = LocalDate.of(year, 1, 1);
         LocalDate endDate = LocalDate.of(year, 12, 31);
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
+        List<DailyExpenseRollup> rollups = rollupService.getRollups(userId, startDate, endDate);
+        Map<Long, String> categoryNames = getCategoryNames(rollups);
+        BigDecimal total = calculateTotal(rollups);
 
         Map<String, Object> report = new HashMap<>();
         report.put("year", year);
-        report.put("totalExpenses", calculateTotal(expenses));
-        report.put("transactionCount", expenses.size());
-        report.put("monthlyTotals", getMonthlyTotals(expenses, year));
-        report.put("categoryBreakdown", getCategoryBreakdown(expenses));
-        report.put("averagePerMonth",
-                calculateTotal(expenses).divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP));
+        report.put("totalExpenses", total);
+        report.put("transactionCount", calculateCount(rollups));
+        report.put("monthlyTotals", getMonthlyTotals(rollups));
+        report.put("categoryBreakdown", getCategoryBreakdown(rollups, categoryNames));
+        report.put("averagePerMonth", total.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP));
 
         return report;
     }
@@ -60,14 +80,21 @@ public class AnalyticsService {
         LocalDate currentStart = LocalDate.of(year, month, 1);
         LocalDate currentEnd = currentStart.withDayOfMonth(currentStart.lengthOfMonth());
         LocalDate previousStart = currentStart.minusMonths(1);
-        LocalDate previousEnd = previousStart.withDayOfMonth(previousStart.lengthOfMonth());
 
-        List<Expense> currentExpenses = expenseRepository.findByUserIdAndDateBetween(userId, currentStart, currentEnd);
-        List<Expense> previousExpenses = expenseRepository.findByUserIdAndDateBetween(userId, previousStart,
-                previousEnd);
+        // One read covers both months; split on the month boundary
+        List<DailyExpenseRollup> rollups = rollupService.getRollups(userId, previousStart, currentEnd);
+        List<DailyExpenseRollup> currentRollups = new ArrayList<>();
+        List<DailyExpenseRollup> previousRollups = new ArrayList<>();
+        for (DailyExpenseRollup rollup : rollups) {
+            if (rollup.getSpendDate().isBefore(currentStart)) {
+                previousRollups.add(rollup);
+            } else {
+                currentRollups.add(rollup);
+            }
+        }
 
-        BigDecimal currentTotal = calculateTotal(currentExpenses);
-        BigDecimal previousTotal = calculateTotal(previousExpenses);
+        BigDecimal currentTotal = calculateTotal(currentRollups);
+        BigDecimal previousTotal = calculateTotal(previousRollups);
         BigDecimal change = currentTotal.subtract(previousTotal);
         Double percentageChange = previousTotal.compareTo(BigDecimal.ZERO) > 0 ? change
                 .divide(previousTotal, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)).doubleValue() : 0;
@@ -76,11 +103,11 @@ public class AnalyticsService {
         comparison.put("current", Map.of(
                 "period", YearMonth.of(year, month).toString(),
                 "total", currentTotal,
-                "count", currentExpenses.size()));
+                "count", calculateCount(currentRollups)));
         comparison.put("previous", Map.of(
                 "period", YearMonth.of(previousStart.getYear(), previousStart.getMonthValue()).toString(),
                 "total", previousTotal,
-                "count", previousExpenses.size()));
+                "count", calculateCount(previousRollups)));
         comparison.put("change", change);
         comparison.put("percentageChange", percentageChange);
 
@@ -91,16 +118,17 @@ public class AnalyticsService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusMonths(months);
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
+        List<DailyExpenseRollup> rollups = rollupService.getRollups(userId, startDate, endDate);
+        Map<Long, String> categoryNames = getCategoryNames(rollups);
 
         Map<String, Map<YearMonth, BigDecimal>> categoryMonthly = new HashMap<>();
 
-        for (Expense expense : expenses) {
-            String category = expense.getCategory() != null ? expense.getCategory().getName() : "Uncategorized";
-            YearMonth month = YearMonth.from(expense.getDate());
+        for (DailyExpenseRollup rollup : rollups) {
+            String category = categoryNameOf(rollup, categoryNames);
+            YearMonth month = YearMonth.from(rollup.getSpendDate());
 
             categoryMonthly.computeIfAbsent(category, k -> new HashMap<>())
-                    .merge(month, expense.getAmount(), BigDecimal::add);
+                    .merge(month, rollup.getTotalAmount(), BigDecimal::add);
         }
 
         return categoryMonthly.entrySet().stream()
@@ -114,9 +142,9 @@ public class AnalyticsService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(days);
 
-        List<Expense> expenses = expenseRepository.findByUserIdAndDateBetween(userId, startDate, endDate);
+        List<DailyExpenseRollup> rollups = rollupService.getRollups(userId, startDate, endDate);
 
-        Map<String, BigDecimal> categoryTotals = getCategoryBreakdown(expenses);
+        Map<String, BigDecimal> categoryTotals = getCategoryBreakdown(rollups, getCategoryNames(rollups));
 
         return categoryTotals.entrySet().stream()
                 .map(entry -> {
@@ -131,20 +159,48 @@ public class AnalyticsService {
 
     // Helper methods
 
-    private BigDecimal calculateTotal(List<Expense> expenses) {
-        return expenses.stream()
-                .map(Expense::getAmount)
+    private Map<Long, String> getCategoryNames(List<DailyExpenseRollup> rollups) {
+        Set<Long> categoryIds = rollups.stream()
+                .filter(r -> !r.isUncategorized())
+                .map(DailyExpenseRollup::getCategoryId)
+                .collect(Collectors.toSet());
+        if (categoryIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+    }
+
+    private String categoryNameOf(DailyExpenseRollup rollup, Map<Long, String> categoryNames) {
+        if (rollup.isUncategorized()) {
+            return UNCATEGORIZED;
+        }
+        return categoryNames.getOrDefault(rollup.getCategoryId(), UNCATEGORIZED);
+    }
+
+    private BigDecimal calculateTotal(List<DailyExpenseRollup> rollups) {
+        return rollups.stream()
+                .map(DailyExpenseRollup::getTotalAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
-    private Map<String, BigDecimal> getCategoryBreakdown(List<Expense> expenses) {
-        return expenses.stream()
-                .collect(Collectors.groupingBy(
-                        e -> e.getCategory() != null ? e.getCategory().getName() : "Uncategorized",
-                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)));
+    private int calculateCount(List<DailyExpenseRollup> rollups) {
+        return rollups.stream()
+                .mapToInt(DailyExpenseRollup::getExpenseCount)
+                .sum();
     }
 
-    private Map<LocalDate, BigDecimal> getDailyTotals(List<Expense> expenses, LocalDate start, LocalDate end) {
+    private Map<String, BigDecimal> getCategoryBreakdown(List<DailyExpenseRollup> rollups,
+            Map<Long, String> categoryNames) {
+        Map<String, BigDecimal> breakdown = new HashMap<>();
+        for (DailyExpenseRollup rollup : rollups) {
+            breakdown.merge(categoryNameOf(rollup, categoryNames), rollup.getTotalAmount(), BigDecimal::add);
+        }
+        return breakdown;
+    }
+
+    private Map<LocalDate, BigDecimal> getDailyTotals(List<DailyExpenseRollup> rollups, LocalDate start,
+            LocalDate end) {
         Map<LocalDate, BigDecimal> dailyTotals = new TreeMap<>();
 
         // Initialize all dates with zero
@@ -153,50 +209,54 @@ public class AnalyticsService {
         }
 
         // Fill in actual values
-        expenses.forEach(e -> dailyTotals.merge(e.getDate(), e.getAmount(), BigDecimal::add));
+        rollups.forEach(r -> dailyTotals.merge(r.getSpendDate(), r.getTotalAmount(), BigDecimal::add));
 
         return dailyTotals;
     }
 
-    private Map<String, BigDecimal> getMonthlyTotals(List<Expense> expenses, int year) {
-        return expenses.stream()
-                .collect(Collectors.groupingBy(
-                        e -> YearMonth.from(e.getDate()).toString(),
-                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)));
+    private Map<String, BigDecimal> getMonthlyTotals(List<DailyExpenseRollup> rollups) {
+        Map<String, BigDecimal> monthlyTotals = new HashMap<>();
+        for (DailyExpenseRollup rollup : rollups) {
+            monthlyTotals.merge(YearMonth.from(rollup.getSpendDate()).toString(), rollup.getTotalAmount(),
+                    BigDecimal::add);
+        }
+        return monthlyTotals;
     }
 
-    private BigDecimal calculateAveragePerDay(List<Expense> expenses, LocalDate start, LocalDate end) {
+    private BigDecimal calculateAveragePerDay(List<DailyExpenseRollup> rollups, LocalDate start, LocalDate end) {
         long days = end.toEpochDay() - start.toEpochDay() + 1;
-        BigDecimal total = calculateTotal(expenses);
+        BigDecimal total = calculateTotal(rollups);
         return days > 0 ? total.divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
     }
 
-    private List<Map<String, Object>> getTopExpenses(List<Expense> expenses, int limit) {
+    private List<Map<String, Object>> getTopExpenses(Long userId, LocalDate start, LocalDate end, int limit) {
+        // Individual rows are not in the rollup; fetch only the top N as projections
+        List<ExpenseSummary> expenses = expenseRepository.findTopByAmount(
+                userId, start, end, PageRequest.of(0, limit));
+
         return expenses.stream()
-                .sorted(Comparator.comparing(Expense::getAmount).reversed())
-                .limit(limit)
                 .map(e -> Map.of(
-                        "description", (Object) e.getDescription(),
-                        "amount", (Object) e.getAmount(),
-                        "date", (Object) e.getDate(),
-                        "category", (Object) (e.getCategory() != null ? e.getCategory().getName() : "Uncategorized")))
+                        "description", (Object) e.description(),
+                        "amount", (Object) e.amount(),
+                        "date", (Object) e.date(),
+                        "category", (Object) e.categoryNameOrDefault()))
                 .collect(Collectors.toList());
     }
 
-    private Map<String, Object> getWeekdayVsWeekend(List<Expense> expenses) {
+    private Map<String, Object> getWeekdayVsWeekend(List<DailyExpenseRollup> rollups) {
         BigDecimal weekdayTotal = BigDecimal.ZERO;
         BigDecimal weekendTotal = BigDecimal.ZERO;
         int weekdayCount = 0;
         int weekendCount = 0;
 
-        for (Expense expense : expenses) {
-            DayOfWeek day = expense.getDate().getDayOfWeek();
+        for (DailyExpenseRollup rollup : rollups) {
+            DayOfWeek day = rollup.getSpendDate().getDayOfWeek();
             if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
-                weekendTotal = weekendTotal.add(expense.getAmount());
-                weekendCount++;
+                weekendTotal = weekendTotal.add(rollup.getTotalAmount());
+                weekendCount += rollup.getExpenseCount();
             } else {
-                weekdayTotal = weekdayTotal.add(expense.getAmount());
-                weekdayCount++;
+                weekdayTotal = weekdayTotal.add(rollup.getTotalAmount());
+                weekdayCount += rollup.getExpenseCount();
             }
         }
 
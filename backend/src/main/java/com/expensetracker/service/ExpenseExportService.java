@@ -0,0 +1,98 @@
+package com.expensetracker.service;
+
+import com.expensetracker.features.expense.ExpenseRepository;
+import com.expensetracker.features.expense.ExpenseRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Writes expenses as CSV straight to an output stream. Rows are read in
+ * (date, id) keyset pages, so memory use is bounded by the page size and a
+ * connection is only held while a page is being fetched, not while the
+ * client is downloading.
+ */
+@Service
+public class ExpenseExportService {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    public void writeCsv(Long userId, LocalDate start, LocalDate end, OutputStream out) throws IOException {
+        // The writer's char and byte buffers are allocated once and reused for every row
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        writer.write("Date,Description,Amount,Category\n");
+
+        Pageable page = PageRequest.of(0, PAGE_SIZE);
+        // Ids are positive, so (start, 0) sits just before the first row on start
+        LocalDate afterDate = start;
+        Long afterId = 0L;
+
+        List<ExpenseRow> rows;
+        do {
+            rows = expenseRepository.findRowsAfter(userId, end, afterDate, afterId, page);
+            for (ExpenseRow row : rows) {
+                writeRow(writer, row);
+            }
+            if (!rows.isEmpty()) {
+                ExpenseRow last = rows.get(rows.size() - 1);
+                afterDate = last.date();
+                afterId = last.id();
+            }
+        } while (rows.size() == PAGE_SIZE);
+
+        writer.flush();
+    }
+
+    private void writeRow(Writer writer, ExpenseRow row) throws IOException {
+        writer.write(row.date().toString());
+        writer.write(',');
+        writeQuoted(writer, row.description());
+        writer.write(',');
+        writer.write(row.amount().setScale(2, RoundingMode.HALF_UP).toPlainString());
+        writer.write(',');
+        String category = row.categoryName() != null ? row.categoryName() : "Uncategorized";
+        if (needsQuoting(category)) {
+            writeQuoted(writer, category);
+        } else {
+            writer.write(category);
+        }
+        writer.write('\n');
+    }
+
+    private void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,218 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.RecurringExpense;
+import com.expensetracker.features.expense.ExpenseRepository;
+import com.expensetracker.features.expense.ExpenseRollupService;
+import com.expensetracker.features.expense.RecurringOccurrence;
+import com.expensetracker.repository.RecurringExpenseRepository;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Generates the expenses of one chunk of due recurring expenses in a single
+ * transaction. Every missed period up to today is generated, not just the
+ * next one. Expenses are written with one JDBC batch insert: expenses use
+ * IDENTITY ids, which keeps Hibernate from batching inserts. Rollup and
+ * budget deltas are summed per (user, day, category) before they are
+ * applied. The schedules' new due dates go out as batched updates when the
+ * transaction flushes.
+ *
+ * Each generated expense carries its occurrence (schedule id + due date),
+ * which is unique in the expenses table. The insert turns a duplicate
+ * occurrence into a no-op (ON DUPLICATE KEY UPDATE id = id), so an
+ * occurrence can never be generated twice, while any other error still
+ * fails the chunk. The chunk's schedules are row-locked while it is written:
+ * a concurrent run waits, then sees the advanced due dates and generates
+ * nothing. Occurrences that already exist are left out before inserting,
+ * and the rollup deltas only count the rows the insert actually wrote.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecurringExpenseBatchWriter {
+
+    private static final String INSERT_EXPENSE = "INSERT INTO expenses "
+            + "(created_at, updated_at, amount, date, description, category_id, user_id, "
+            + "recurring_expense_id, recurring_due_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE id = id";
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupService rollupService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Periods generated per schedule per run; a schedule further behind catches up over several runs
+    @Value("${app.recurring.max-catch-up:366}")
+    private int maxCatchUp;
+
+    public record ChunkResult(int schedules, int expenses, int deactivated, int alreadyGenerated) {}
+
+    private record Occurrence(
+            Long recurringExpenseId, Long userId, Long categoryId, String description, BigDecimal amount, LocalDate date) {
+
+        RecurringOccurrence key() {
+            return new RecurringOccurrence(recurringExpenseId, date);
+        }
+    }
+
+    private record Bucket(Long userId, LocalDate date, Long categoryId) {}
+
+    @Transactional
+    public ChunkResult write(List<Long> ids, LocalDate today) {
+        List<RecurringExpense> schedules = recurringExpenseRepository.findAllByIdForUpdate(ids);
+        List<Occurrence> occurrences = new ArrayList<>();
+        int deactivated = 0;
+
+        for (RecurringExpense recurring : schedules) {
+            // Re-checked here: the schedule may have changed since its id was selected
+            if (!Boolean.TRUE.equals(recurring.getActive()) || recurring.getNextDueDate().isAfter(today)) {
+                continue;
+            }
+            Long userId = recurring.getUser().getId();
+            Long categoryId = recurring.getCategory() != null ? recurring.getCategory().getId() : null;
+            int generated = 0;
+            while (generated < maxCatchUp
+                    && !recurring.getNextDueDate().isAfter(today)
+                    && !isPastEnd(recurring, recurring.getNextDueDate())) {
+                occurrences.add(new Occurrence(recurring.getId(), userId, categoryId,
+                        recurring.getDescription(), recurring.getAmount(), recurring.getNextDueDate()));
+                recurring.updateNextDueDate();
+                generated++;
+            }
+            if (isPastEnd(recurring, recurring.getNextDueDate())) {
+                recurring.setActive(false);
+                deactivated++;
+            }
+        }
+
+        List<Occurrence> inserted = insert(withoutExisting(occurrences));
+        recordRollups(inserted);
+        return new ChunkResult(schedules.size(), inserted.size(), deactivated, occurrences.size() - inserted.size());
+    }
+
+    private List<Occurrence> withoutExisting(List<Occurrence> occurrences) {
+        if (occurrences.isEmpty()) {
+            return occurrences;
+        }
+        Set<RecurringOccurrence> existing = new HashSet<>(
+                expenseRepository.findRecurringOccurrences(recurringIds(occurrences), earliest(occurrences)));
+        if (existing.isEmpty()) {
+            return occurrences;
+        }
+        List<Occurrence> missing = new ArrayList<>(occurrences.size());
+        for (Occurrence occurrence : occurrences) {
+            if (!existing.contains(occurrence.key())) {
+                missing.add(occurrence);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Insert the occurrences and return the ones that were written. An update
+     * count of 0 is a duplicate that was skipped. Any other count is not
+     * proof of an insert: batch rewriting reports SUCCESS_NO_INFO, and with
+     * Connector/J's default CLIENT_FOUND_ROWS a skipped duplicate counts 1.
+     * Those rows are confirmed by looking up the ones stamped with this
+     * insert's created_at.
+     */
+    private List<Occurrence> insert(List<Occurrence> occurrences) {
+        if (occurrences.isEmpty()) {
+            return occurrences;
+        }
+        // Microseconds, as stored in created_at, so the stamp can be matched again
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Timestamp stamp = Timestamp.valueOf(now);
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_EXPENSE, occurrences, INSERT_BATCH_SIZE, (ps, occurrence) -> {
+            ps.setTimestamp(1, stamp);
+            ps.setTimestamp(2, stamp);
+            ps.setBigDecimal(3, occurrence.amount());
+            ps.setDate(4, Date.valueOf(occurrence.date()));
+            ps.setString(5, occurrence.description());
+            if (occurrence.categoryId() != null) {
+                ps.setLong(6, occurrence.categoryId());
+            } else {
+                ps.setNull(6, Types.BIGINT);
+            }
+            ps.setLong(7, occurrence.userId());
+            ps.setLong(8, occurrence.recurringExpenseId());
+            ps.setDate(9, Date.valueOf(occurrence.date()));
+        });
+
+        List<Occurrence> unconfirmed = new ArrayList<>(occurrences.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    unconfirmed.add(occurrences.get(index));
+                }
+                index++;
+            }
+        }
+        if (unconfirmed.isEmpty()) {
+            return unconfirmed;
+        }
+
+        Set<RecurringOccurrence> written = new HashSet<>(expenseRepository.findRecurringOccurrencesCreatedAt(
+                recurringIds(unconfirmed), earliest(unconfirmed), now));
+        List<Occurrence> inserted = new ArrayList<>(unconfirmed.size());
+        for (Occurrence occurrence : unconfirmed) {
+            if (written.contains(occurrence.key())) {
+                inserted.add(occurrence);
+            }
+        }
+        return inserted;
+    }
+
+    private void recordRollups(List<Occurrence> occurrences) {
+        Map<Bucket, BigDecimal> amounts = new LinkedHashMap<>();
+        Map<Bucket, Integer> counts = new LinkedHashMap<>();
+        for (Occurrence occurrence : occurrences) {
+            Bucket bucket = new Bucket(occurrence.userId(), occurrence.date(), occurrence.categoryId());
+            amounts.merge(bucket, occurrence.amount(), BigDecimal::add);
+            counts.merge(bucket, 1, Integer::sum);
+        }
+        amounts.forEach((bucket, amount) ->
+                rollupService.record(bucket.userId(), bucket.date(), bucket.categoryId(), amount, counts.get(bucket)));
+    }
+
+    private static Set<Long> recurringIds(List<Occurrence> occurrences) {
+        Set<Long> ids = new HashSet<>();
+        for (Occurrence occurrence : occurrences) {
+            ids.add(occurrence.recurringExpenseId());
+        }
+        return ids;
+    }
+
+    private static LocalDate earliest(List<Occurrence> occurrences) {
+        LocalDate earliest = occurrences.get(0).date();
+        for (Occurrence occurrence : occurrences) {
+            if (occurrence.date().isBefore(earliest)) {
+                earliest = occurrence.date();
+            }
+        }
+        return earliest;
+    }
+
+    private static boolean isPastEnd(RecurringExpense recurring, LocalDate date) {
+        return recurring.getEndDate() != null && date.isAfter(recurring.getEndDate());
+    }
+}
@@ -1,95 +1,190 @@
 package com.expensetracker.service;
 
-import com.expensetracker.features.expense.Expense;
-import com.expensetracker.entity.RecurringExpense;
-import com.expensetracker.features.expense.ExpenseRepository;
 import com.expensetracker.repository.RecurringExpenseRepository;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
+import com.expensetracker.service.RecurringExpenseBatchWriter.ChunkResult;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
 
+/**
+ * Generates the expenses of due recurring expenses. Schedules are split into
+ * partitions by user id, and each partition is run under its own lease from
+ * SchedulerLockService. When several nodes fire at once, each partition runs
+ * on exactly one of them and the partitions spread across the nodes. Keeping
+ * a user's schedules in one partition also keeps nodes off the same rollup
+ * rows. Within a partition, due schedules are walked in id order, one chunk
+ * at a time, and RecurringExpenseBatchWriter writes each chunk in its own
+ * transaction. Each schedule catches up on every period it missed. If a
+ * chunk fails, its schedules are retried one by one, so one bad schedule
+ * cannot hold back the rest of its chunk.
+ */
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class RecurringExpenseScheduler {
 
-    @Autowired
-    private RecurringExpenseRepository recurringExpenseRepository;
+    static final String LOCK_NAME = "recurring-expenses";
 
-    @Autowired
-    private ExpenseRepository expenseRepository;
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final RecurringExpenseBatchWriter batchWriter;
+    private final SchedulerLockService schedulerLock;
+
+    @Value("${app.recurring.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.recurring.partitions:8}")
+    private int partitions;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, Object> lastRun = new ConcurrentHashMap<>();
 
     /**
      * Runs daily at 1 AM to generate recurring expenses
      */
-    @Scheduled(cron = "0 0 1 * * ?")
-    @Transactional
+    @Scheduled(cron = "${app.recurring.cron:0 0 1 * * ?}")
     public void generateRecurringExpenses() {
-        System.out.println("Running recurring expense scheduler...");
+        run(LocalDate.now());
+    }
 
-        LocalDate today = LocalDate.now();
-        List<RecurringExpense> dueExpenses = recurringExpenseRepository
-                .findByActiveAndNextDueDateLessThanEqual(true, today);
+    /**
+     * Manual trigger; same run as the nightly one
+     */
+    public int generateNow() {
+        return run(LocalDate.now());
+    }
 
-        for (RecurringExpense recurring : dueExpenses) {
-            try {
-                // Check if expired
-                if (recurring.isExpired()) {
-                    recurring.setActive(false);
-                    recurringExpenseRepository.save(recurring);
-                    continue;
-                }
+    /**
+     * Generate every expense due up to the given day. Returns the number of
+     * expenses generated, or -1 if a run is already going.
+     */
+    public int run(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Recurring expense generation already running; skipped");
+            return -1;
+        }
+        try {
+            return runPartitions(today);
+        } finally {
+            running.set(false);
+        }
+    }
 
-                // Create actual expense
-                Expense expense = Expense.builder()
-                        .user(recurring.getUser())
-                        .category(recurring.getCategory())
-                        .description(recurring.getDescription())
-                        .amount(recurring.getAmount())
-                        .date(recurring.getNextDueDate())
-                        .build();
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running.get());
+        stats.put("chunkSize", chunkSize);
+        stats.put("partitions", partitions);
+        stats.put("lastRun", new LinkedHashMap<>(lastRun));
+        return stats;
+    }
+
+    private int runPartitions(LocalDate today) {
+        long started = System.currentTimeMillis();
+        Totals totals = new Totals();
+
+        for (int partition = 0; partition < partitions; partition++) {
+            String lockName = LOCK_NAME + ":" + partition;
+            if (!schedulerLock.tryLock(lockName)) {
+                // Another node has it, or finished it moments ago
+                totals.partitionsSkipped++;
+                continue;
+            }
+            try {
+                runPartition(today, partition, lockName, totals);
+                totals.partitions++;
+            } finally {
+                schedulerLock.unlock(lockName);
+            }
+        }
 
-                expenseRepository.save(expense);
+        long elapsed = System.currentTimeMillis() - started;
+        lastRun.put("runDate", today.toString());
+        lastRun.put("node", schedulerLock.nodeId());
+        lastRun.put("partitions", totals.partitions);
+        lastRun.put("partitionsSkipped", totals.partitionsSkipped);
+        lastRun.put("chunks", totals.chunks);
+        lastRun.put("schedules", totals.schedules);
+        lastRun.put("expenses", totals.expenses);
+        lastRun.put("deactivated", totals.deactivated);
+        lastRun.put("alreadyGenerated", totals.alreadyGenerated);
+        lastRun.put("failed", totals.failed);
+        lastRun.put("elapsedMs", elapsed);
+        lastRun.put("schedulesPerSecond", elapsed > 0 ? totals.schedules * 1000.0 / elapsed : 0.0);
+        lastRun.put("expensesPerSecond", elapsed > 0 ? totals.expenses * 1000.0 / elapsed : 0.0);
+        lastRun.put("finishedAt", LocalDateTime.now().toString());
+        log.info(
+                "Recurring expenses for {} on {}: {}/{} partitions, {} schedules, {} expenses, {} deactivated, {} failed in {} ms ({} schedules/s)",
+                today,
+                schedulerLock.nodeId(),
+                totals.partitions,
+                partitions,
+                totals.schedules,
+                totals.expenses,
+                totals.deactivated,
+                totals.failed,
+                elapsed,
+                elapsed > 0 ? String.format("%.1f", totals.schedules * 1000.0 / elapsed) : "-"
+        );
+        return totals.expenses;
+    }
 
-                // Update next due date
-                recurring.updateNextDueDate();
-                recurringExpenseRepository.save(recurring);
+    private void runPartition(LocalDate today, int partition, String lockName, Totals totals) {
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = recurringExpenseRepository.findDueIdsAfter(
+                    today, partitions, partition, afterId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return;
+            }
+            afterId = ids.get(ids.size() - 1);
+            totals.chunks++;
 
-                System.out.println("Generated recurring expense: " + recurring.getDescription());
+            try {
+                totals.add(batchWriter.write(ids, today));
             } catch (Exception e) {
-                System.err.println("Error generating recurring expense: " + e.getMessage());
+                log.warn("Recurring expense chunk up to id {} failed, retrying one by one: {}", afterId, e.getMessage());
+                for (Long id : ids) {
+                    try {
+                        totals.add(batchWriter.write(List.of(id), today));
+                    } catch (Exception single) {
+                        totals.failed++;
+                        log.error("Error generating recurring expense {}", id, single);
+                    }
+                }
+            }
+
+            if (!schedulerLock.extend(lockName)) {
+                return;
             }
         }
     }
 
-    /**
-     * Manual trigger for testing
-     */
-    @Transactional
-    public int generateNow() {
-        LocalDate today = LocalDate.now();
-        List<RecurringExpense> dueExpenses = recurringExpenseRepository
-                .findByActiveAndNextDueDateLessThanEqual(true, today);
-
-        int count = 0;
-        for (RecurringExpense recurring : dueExpenses) {
-            if (!recurring.isExpired()) {
-                Expense expense = Expense.builder()
-                        .user(recurring.getUser())
-                        .category(recurring.getCategory())
-                        .description(recurring.getDescription())
-                        .amount(recurring.getAmount())
-                        .date(recurring.getNextDueDate())
-                        .build();
-
-                expenseRepository.save(expense);
-                recurring.updateNextDueDate();
-                recurringExpenseRepository.save(recurring);
-                count++;
-            }
+    private static class Totals {
+
+        int partitions;
+        int partitionsSkipped;
+        int chunks;
+        int schedules;
+        int expenses;
+        int deactivated;
+        int alreadyGenerated;
+        int failed;
+
+        void add(ChunkResult result) {
+            schedules += result.schedules();
+            expenses += result.expenses();
+            deactivated += result.deactivated();
+            alreadyGenerated += result.alreadyGenerated();
         }
-        return count;
     }
 }
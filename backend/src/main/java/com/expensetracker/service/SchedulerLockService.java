@@ -0,0 +1,85 @@
+package com.expensetracker.service;
+
+import com.expensetracker.repository.SchedulerLockRepository;
+import jakarta.annotation.PostConstruct;
+import java.lang.management.ManagementFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Database leases that let exactly one node run a scheduled job when the
+ * backend is scaled out. A lease lasts lock-minutes unless the holder
+ * extends it, so a node that dies mid-run frees its job after that long.
+ * Jobs that work in chunks extend the lease after every chunk. A released
+ * lease is still held until min-lock-seconds after it was taken, so a node
+ * whose clock fires a little late does not run a finished job again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository lockRepository;
+
+    @Value("${app.scheduler.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${app.scheduler.lock-minutes:10}")
+    private long lockMinutes;
+
+    @Value("${app.scheduler.min-lock-seconds:30}")
+    private long minLockSeconds;
+
+    private String nodeId;
+
+    @PostConstruct
+    void init() {
+        // pid@hostname unless configured
+        nodeId = configuredNodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : configuredNodeId;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean tryLock(String name) {
+        long seconds = lockMinutes * 60;
+        return lockRepository.takeExpired(name, nodeId, seconds) == 1
+                || lockRepository.insertIfAbsent(name, nodeId, seconds) == 1;
+    }
+
+    /**
+     * Renew a lease this node holds. False if another node has taken it over
+     * after it ran out, in which case the caller should stop.
+     */
+    public boolean extend(String name) {
+        boolean extended = lockRepository.extend(name, nodeId, lockMinutes * 60) == 1;
+        if (!extended) {
+            log.warn("Lost scheduler lock {} on {}", name, nodeId);
+        }
+        return extended;
+    }
+
+    public void unlock(String name) {
+        lockRepository.release(name, nodeId, minLockSeconds);
+    }
+
+    /**
+     * Run the task if this node gets the lease, and release it afterwards.
+     * Returns false, without running the task, if another node holds it.
+     */
+    public boolean runLocked(String name, Runnable task) {
+        if (!tryLock(name)) {
+            log.info("Scheduler lock {} is held by another node; skipped", name);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            unlock(name);
+        }
+    }
+}
@@ -3,17 +3,40 @@ package com.expensetracker.service;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Value("${app.auth.principal-cache.max-size:10000}")
+    private int principalCacheMaxSize;
+
+    @Value("${app.auth.principal-cache.ttl-seconds:60}")
+    private long principalCacheTtlSeconds;
+
+    // email -> principal, least recently used first; guarded by itself
+    private final Map<String, CachedPrincipal> principals = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+            return size() > principalCacheMaxSize;
+        }
+    };
+
+    private record CachedPrincipal(UserDetailsImpl principal, long expiresAtNanos) {}
+
+    /**
+     * Always reads the database; used for login, where the password must be current
+     */
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -22,4 +45,35 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return UserDetailsImpl.build(user);
     }
+
+    /**
+     * Principal for an already verified token, served from a bounded in-process
+     * cache for up to ttl-seconds. UserController evicts on profile and password
+     * changes; on other nodes a change shows after at most the TTL.
+     */
+    public UserDetailsImpl loadCachedUserByUsername(String email) throws UsernameNotFoundException {
+        long now = System.nanoTime();
+        synchronized (principals) {
+            CachedPrincipal cached = principals.get(email);
+            if (cached != null && now - cached.expiresAtNanos() < 0) {
+                return cached.principal();
+            }
+        }
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + email));
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+
+        long expiresAt = now + principalCacheTtlSeconds * 1_000_000_000L;
+        synchronized (principals) {
+            principals.put(email, new CachedPrincipal(principal, expiresAt));
+        }
+        return principal;
+    }
+
+    public void evict(String email) {
+        synchronized (principals) {
+            principals.remove(email);
+        }
+    }
 }
@@ -0,0 +1,10 @@
+-- Resume points for batch jobs that walk a table in id order (e.g. the nightly
+-- nudge generation): one row per job, updated after every finished chunk.
+CREATE TABLE IF NOT EXISTS `job_checkpoints` (
+  `job_name` varchar(64) NOT NULL,
+  `run_date` date NOT NULL,
+  `last_id` bigint NOT NULL,
+  `completed_at` datetime(6) DEFAULT NULL,
+  `updated_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`job_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,14 @@
+-- Generated nudges carry a fingerprint (type:subject:period, see NudgeService) that is
+-- unique per user, so generation upserts instead of appending copies. Nudges created
+-- before this keep a NULL fingerprint and are aged out by the retention job.
+ALTER TABLE `nudges`
+  ADD COLUMN `fingerprint` varchar(128) DEFAULT NULL,
+  ADD COLUMN `dismissed` bit(1) NOT NULL DEFAULT b'0';
+
+CREATE UNIQUE INDEX `uk_nudges_user_fingerprint` ON `nudges` (`user_id`, `fingerprint`);
+
+-- Listing a user's visible nudges, newest first
+CREATE INDEX `idx_nudges_user_dismissed_created` ON `nudges` (`user_id`, `dismissed`, `created_at`);
+
+-- Retention: NudgeRepository.deleteExpired walks by age
+CREATE INDEX `idx_nudges_created_at` ON `nudges` (`created_at`);
@@ -0,0 +1,11 @@
+-- Per-user values for the nudge rule thresholds (NudgeThreshold); anything not
+-- overridden uses app.nudges.thresholds.* from the configuration.
+CREATE TABLE IF NOT EXISTS `nudge_threshold_overrides` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `user_id` bigint NOT NULL,
+  `threshold` varchar(64) NOT NULL,
+  `threshold_value` decimal(19,2) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_nudge_threshold_overrides_user_threshold` (`user_id`, `threshold`),
+  CONSTRAINT `fk_nudge_threshold_overrides_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
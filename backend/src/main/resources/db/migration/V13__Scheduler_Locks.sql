@@ -0,0 +1,10 @@
+-- Leases for scheduled jobs when the backend runs on several nodes: a job (or
+-- one partition of it) runs only on the node that holds its row until
+-- locked_until. Times are the database's, so node clocks never disagree.
+CREATE TABLE IF NOT EXISTS `scheduler_locks` (
+  `name` varchar(64) NOT NULL,
+  `locked_until` datetime(6) NOT NULL,
+  `locked_at` datetime(6) NOT NULL,
+  `locked_by` varchar(255) NOT NULL,
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,12 @@
+-- Links an expense generated by the recurring expense scheduler to the
+-- occurrence it materializes (schedule id + due date). The unique key makes
+-- generating an occurrence twice impossible; the scheduler inserts with
+-- ON DUPLICATE KEY UPDATE id = id, so retried or concurrent runs are no-ops
+-- while any other error still fails the insert. Manually entered expenses
+-- leave both columns NULL, which the unique key does not compare.
+ALTER TABLE `expenses`
+  ADD COLUMN `recurring_expense_id` bigint DEFAULT NULL,
+  ADD COLUMN `recurring_due_date` date DEFAULT NULL,
+  ADD UNIQUE KEY `uk_expenses_recurring_occurrence` (`recurring_expense_id`, `recurring_due_date`),
+  ADD CONSTRAINT `FK_expenses_recurring_expense` FOREIGN KEY (`recurring_expense_id`)
+    REFERENCES `recurring_expenses` (`id`) ON DELETE SET NULL;
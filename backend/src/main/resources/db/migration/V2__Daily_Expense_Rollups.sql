@@ -0,0 +1,22 @@
+-- Daily spend rollup per (user, date, category)
+-- Maintained transactionally by ExpenseService; read by AnalyticsService.
+-- category_id = 0 holds uncategorized expenses so it can be part of the primary key.
+
+CREATE TABLE IF NOT EXISTS `daily_expense_rollups` (
+  `user_id` bigint NOT NULL,
+  `spend_date` date NOT NULL,
+  `category_id` bigint NOT NULL DEFAULT 0,
+  `total_amount` decimal(38,2) NOT NULL,
+  `expense_count` int NOT NULL,
+  PRIMARY KEY (`user_id`, `spend_date`, `category_id`),
+  CONSTRAINT `FK_daily_expense_rollups_user` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Backfill from existing expenses
+INSERT INTO `daily_expense_rollups` (`user_id`, `spend_date`, `category_id`, `total_amount`, `expense_count`)
+SELECT `user_id`, `date`, COALESCE(`category_id`, 0), SUM(`amount`), COUNT(*)
+FROM `expenses`
+GROUP BY `user_id`, `date`, COALESCE(`category_id`, 0)
+ON DUPLICATE KEY UPDATE
+  `total_amount` = VALUES(`total_amount`),
+  `expense_count` = VALUES(`expense_count`);
@@ -0,0 +1,4 @@
+-- Supports keyset pagination of a user's expenses ordered by (date desc, id desc).
+-- The seek predicate and ORDER BY are both served by a backward scan of this index.
+
+CREATE INDEX `idx_expenses_user_date_id` ON `expenses` (`user_id`, `date`, `id`);
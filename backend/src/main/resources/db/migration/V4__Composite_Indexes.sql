@@ -0,0 +1,16 @@
+-- Composite indexes for the hot per-user lookups. V1 only has single-column FK
+-- indexes, so these queries used to pick user_id and filter the rest row by row.
+-- Before/after plans: ./benchmark_indexes.sh in the repository root.
+
+-- findByUserIdAndDateBetween / findByUserIdAndCategoryIdAndDateBetween and the
+-- grouped sums in ExpenseRepository; category_id and amount make the sums index-only.
+CREATE INDEX `idx_expenses_user_date_category_amount` ON `expenses` (`user_id`, `date`, `category_id`, `amount`);
+
+-- BudgetRepository.findByUserIdAndYearAndMonth(+CategoryId)
+CREATE INDEX `idx_budgets_user_year_month_category` ON `budgets` (`user_id`, `year`, `month`, `category_id`);
+
+-- RecurringExpenseRepository.findByActiveAndNextDueDateLessThanEqual (scheduler)
+CREATE INDEX `idx_recurring_expenses_active_next_due` ON `recurring_expenses` (`active`, `next_due_date`);
+
+-- Receipt listing/stats by status
+CREATE INDEX `idx_receipts_user_status` ON `receipts` (`user_id`, `status`);
@@ -0,0 +1,4 @@
+-- The receipt OCR queue lives in receipts.status: the pipeline poller reads the
+-- oldest PENDING ids and recovers PROCESSING rows whose updated_at has gone stale.
+CREATE INDEX `idx_receipts_status_created` ON `receipts` (`status`, `created_at`);
+CREATE INDEX `idx_receipts_status_updated` ON `receipts` (`status`, `updated_at`);
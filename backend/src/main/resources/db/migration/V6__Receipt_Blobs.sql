@@ -0,0 +1,19 @@
+-- Content-addressed receipt images. Files live at <storage-dir>/<h0h1>/<h2h3>/<sha256>
+-- and are shared by every receipt with the same bytes; ref_count tracks how many
+-- receipts point at a blob, and the file is removed when it drops to zero.
+-- Written through ReceiptStorage, never directly.
+
+CREATE TABLE IF NOT EXISTS `receipt_blobs` (
+  `content_hash` varchar(64) NOT NULL,
+  `path` varchar(255) NOT NULL,
+  `size_bytes` bigint NOT NULL,
+  `ref_count` int NOT NULL,
+  `created_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`content_hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Receipts uploaded before this migration keep their UUID file and a NULL hash
+ALTER TABLE `receipts` ADD COLUMN `content_hash` varchar(64) DEFAULT NULL;
+
+-- Duplicate check on upload: ReceiptRepository.findFirstByUserAndContentHash
+CREATE INDEX `idx_receipts_user_content_hash` ON `receipts` (`user_id`, `content_hash`);
@@ -0,0 +1,5 @@
+-- Downscaled JPEGs written by the receipt pipeline next to the original image
+-- (ReceiptThumbnailer). NULL until derived, and for originals ImageIO cannot read (PDF).
+ALTER TABLE `receipts`
+  ADD COLUMN `thumbnail_path` varchar(255) DEFAULT NULL,
+  ADD COLUMN `preview_path` varchar(255) DEFAULT NULL;
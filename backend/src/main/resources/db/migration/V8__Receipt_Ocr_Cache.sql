@@ -0,0 +1,8 @@
+-- OCR results cached per image content (ReceiptProcessor): reprocessing identical
+-- bytes with the same engine reuses the text instead of running OCR again.
+ALTER TABLE `receipt_blobs`
+  ADD COLUMN `ocr_text` text DEFAULT NULL,
+  ADD COLUMN `ocr_engine` varchar(32) DEFAULT NULL;
+
+-- Real OCR output regularly exceeds the 1000 chars the mock text fitted in
+ALTER TABLE `receipts` MODIFY COLUMN `ocr_text` text DEFAULT NULL;
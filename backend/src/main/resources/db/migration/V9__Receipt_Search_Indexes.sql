@@ -0,0 +1,7 @@
+-- Receipt search (ReceiptRepository.searchByText / search). Free text is matched
+-- through a FULLTEXT index over the merchant and the OCR text, so a search reads
+-- only the matching rows instead of every receipt the user has.
+ALTER TABLE `receipts` ADD FULLTEXT INDEX `ft_receipts_merchant_ocr` (`merchant_name`, `ocr_text`);
+
+-- Amount/date-only searches: per-user range on the extracted receipt date
+CREATE INDEX `idx_receipts_user_extracted_date` ON `receipts` (`user_id`, `extracted_date`);
@@ -0,0 +1,160 @@
+package com.expensetracker.features.expense;
+
+import com.expensetracker.entity.User;
+import com.expensetracker.features.category.Category;
+import com.expensetracker.features.wallet.Wallet;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class ExpenseRepositoryTest {
+
+    // Only the expense repositories are needed; keeps unrelated repository queries out of the context
+    @SpringBootConfiguration
+    @EntityScan(basePackages = "com.expensetracker")
+    @EnableJpaRepositories(basePackageClasses = ExpenseRepository.class)
+    static class Config {
+    }
+
+    private static final int EXPENSES = 10;
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long userId;
+
+    @BeforeEach
+    public void setUp() {
+        User user = new User();
+        user.setEmail("listing@example.com");
+        user.setPassword("password");
+        user.setFullName("Listing User");
+        entityManager.persist(user);
+        userId = user.getId();
+
+        // A distinct category and wallet per expense so lazy loading would cost one select each
+        for (int i = 0; i < EXPENSES; i++) {
+            Category category = Category.builder().name("Category " + i).user(user).build();
+            entityManager.persist(category);
+
+            Wallet wallet = Wallet.builder()
+                    .name("Wallet " + i)
+                    .type(Wallet.WalletType.CASH)
+                    .balance(BigDecimal.ZERO)
+                    .currency("BDT")
+                    .user(user)
+                    .build();
+            entityManager.persist(wallet);
+
+            entityManager.persist(Expense.builder()
+                    .description("Expense " + i)
+                    .amount(BigDecimal.valueOf(10 + i))
+                    .date(LocalDate.of(2024, 1, 1).plusDays(i))
+                    .category(category)
+                    .wallet(i % 2 == 0 ? wallet : null)
+                    .user(user)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testDtoPageUsesOneSelectPlusCount() {
+        Statistics statistics = statistics();
+
+        Page<ExpenseDTO> page = expenseRepository.findDtoPageByUserId(userId,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "date")));
+
+        assertThat(page.getTotalElements()).isEqualTo(EXPENSES);
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        ExpenseDTO first = page.getContent().get(0);
+        assertThat(first.getDescription()).isEqualTo("Expense 9");
+        assertThat(first.getCategoryName()).isEqualTo("Category 9");
+        assertThat(first.getWalletId()).isNull();
+        assertThat(page.getContent().get(1).getWalletName()).isEqualTo("Wallet 8");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testEntityGraphPageDoesNotLoadProxiesPerRow() {
+        Statistics statistics = statistics();
+
+        Page<Expense> page = expenseRepository.findWithCategoryAndWalletByUserId(userId,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "date")));
+
+        for (Expense expense : page.getContent()) {
+            assertThat(expense.getCategory().getName()).startsWith("Category");
+            if (expense.getWallet() != null) {
+                assertThat(expense.getWallet().getName()).startsWith("Wallet");
+            }
+        }
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testKeysetPagesWalkAllRowsWithoutCount() {
+        Statistics statistics = statistics();
+
+        List<ExpenseDTO> first = expenseRepository.findFirstKeysetPage(userId, PageRequest.of(0, 4));
+        ExpenseDTO last = first.get(first.size() - 1);
+        List<ExpenseDTO> second = expenseRepository.findKeysetPageBefore(userId, last.getDate(), last.getId(),
+                PageRequest.of(0, 10));
+
+        assertThat(first).extracting(ExpenseDTO::getDescription)
+                .containsExactly("Expense 9", "Expense 8", "Expense 7", "Expense 6");
+        assertThat(second).hasSize(EXPENSES - 4);
+        assertThat(second.get(0).getDescription()).isEqualTo("Expense 5");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRowsAfterStartCursorExcludeTheDayBefore() {
+        LocalDate start = LocalDate.of(2024, 1, 3);
+        LocalDate end = LocalDate.of(2024, 1, 5);
+
+        List<ExpenseRow> rows = expenseRepository.findRowsAfter(userId, end, start, 0L, PageRequest.of(0, 10));
+
+        assertThat(rows).extracting(ExpenseRow::description)
+                .containsExactly("Expense 2", "Expense 3", "Expense 4");
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,73 @@
+package com.expensetracker.features.receipt;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class KeywordAutomatonTest {
+
+    private static long scan(KeywordAutomaton automaton, String text) {
+        int state = KeywordAutomaton.ROOT;
+        long matches = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = automaton.step(state, text.charAt(i));
+            matches |= automaton.matches(state);
+        }
+        return matches;
+    }
+
+    @Test
+    public void testFindsOverlappingKeywords() {
+        KeywordAutomaton automaton = KeywordAutomaton.build(List.of(
+                List.of("he", "she"),
+                List.of("his", "hers")
+        ));
+
+        assertEquals(0b11, scan(automaton, "ushers"));
+        assertEquals(0b01, scan(automaton, "ushe"));
+        assertEquals(0b00, scan(automaton, "hi"));
+    }
+
+    @Test
+    public void testMatchesThroughFailureLinks() {
+        KeywordAutomaton automaton = KeywordAutomaton.build(List.of(
+                List.of("abcd"),
+                List.of("bc")
+        ));
+
+        assertEquals(0b10, scan(automaton, "abcx"));
+        assertEquals(0b11, scan(automaton, "xabcd"));
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        KeywordAutomaton automaton = KeywordAutomaton.build(List.of(List.of("Pizza")));
+
+        assertEquals(1, scan(automaton, "PIZZA HUT"));
+        assertEquals(1, scan(automaton, "pizza"));
+    }
+
+    @Test
+    public void testNonAsciiResetsToRoot() {
+        KeywordAutomaton automaton = KeywordAutomaton.build(List.of(List.of("cafe")));
+
+        assertEquals(0, scan(automaton, "café"));
+        assertEquals(0, scan(automaton, "ca fe"));
+        assertEquals(1, scan(automaton, "é cafe"));
+    }
+
+    @Test
+    public void testRejectsTooManyGroups() {
+        List<List<String>> groups = new ArrayList<>(Collections.nCopies(65, List.of("x")));
+
+        assertThrows(IllegalArgumentException.class, () -> KeywordAutomaton.build(groups));
+    }
+
+    @Test
+    public void testRejectsNonAsciiKeywords() {
+        assertThrows(IllegalArgumentException.class, () -> KeywordAutomaton.build(List.of(List.of("café"))));
+    }
+}
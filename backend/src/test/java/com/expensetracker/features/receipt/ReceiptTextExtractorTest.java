@@ -0,0 +1,99 @@
+package com.expensetracker.features.receipt;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ReceiptTextExtractorTest {
+
+    private final ReceiptTextExtractor extractor = new ReceiptTextExtractor();
+
+    @Test
+    public void testTotalIsPreferredOverSubtotal() {
+        ReceiptTextExtractor.ReceiptFields fields = extractor.extract(
+                "Corner Store\nSUBTOTAL 10.00\nTAX 0.80\nTOTAL: $10.80\nCASH 20.00\n");
+
+        assertEquals(new BigDecimal("10.80"), fields.amount());
+    }
+
+    @Test
+    public void testTotalWithTakaSignAndThousandsSeparator() {
+        ReceiptTextExtractor.ReceiptFields fields = extractor.extract("Dhaka Mart\nTotal ৳ 1,234.56\n");
+
+        assertEquals(new BigDecimal("1234.56"), fields.amount());
+    }
+
+    @Test
+    public void testLargestAmountWithoutTotal() {
+        ReceiptTextExtractor.ReceiptFields fields = extractor.extract("Corner Store\nBread 3.50\nCheese 12.25\n");
+
+        assertEquals(new BigDecimal("12.25"), fields.amount());
+    }
+
+    @Test
+    public void testNoAmount() {
+        ReceiptTextExtractor.ReceiptFields fields = extractor.extract("");
+
+        assertNull(fields.amount());
+        assertNull(fields.date());
+        assertEquals("Unknown Merchant", fields.merchantName());
+        assertEquals("Other", fields.category());
+    }
+
+    @Test
+    public void testIsoDate() {
+        assertEquals(LocalDateTime.of(2024, 3, 15, 0, 0), extractor.extract("Date: 2024-03-15\n").date());
+    }
+
+    @Test
+    public void testMonthFirstDate() {
+        assertEquals(LocalDateTime.of(2024, 3, 4, 0, 0), extractor.extract("03/04/2024\n").date());
+        assertEquals(LocalDateTime.of(2023, 12, 25, 0, 0), extractor.extract("12-25-23\n").date());
+    }
+
+    @Test
+    public void testDayFirstDateWhenMonthFirstIsInvalid() {
+        assertEquals(LocalDateTime.of(2023, 12, 25, 0, 0), extractor.extract("25/12/2023\n").date());
+    }
+
+    @Test
+    public void testInvalidDates() {
+        assertNull(extractor.extract("31/02/2024\n").date());
+        assertNull(extractor.extract("02/29/2023\n").date());
+        assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0), extractor.extract("02/29/2024\n").date());
+    }
+
+    @Test
+    public void testMerchantIsFirstNameLikeLine() {
+        ReceiptTextExtractor.ReceiptFields fields = extractor.extract("  \nABC\n  Fresh Mart  \nTOTAL 5.00\n");
+
+        assertEquals("Fresh Mart", fields.merchantName());
+    }
+
+    @Test
+    public void testMerchantOnlyFromFirstLines() {
+        ReceiptTextExtractor.ReceiptFields fields = extractor.extract("a\nb\nc\nd\ne\nFresh Mart\n");
+
+        assertEquals("Unknown Merchant", fields.merchantName());
+    }
+
+    @Test
+    public void testCategoryPriority() {
+        assertEquals("Groceries", extractor.extract("Walmart Pharmacy\n").category());
+        assertEquals("Dining", extractor.extract("Shell gas station cafe\n").category());
+        assertEquals("Utilities", extractor.extract("City water bill\n").category());
+    }
+
+    @Test
+    public void testNonAsciiText() {
+        ReceiptTextExtractor.ReceiptFields fields = extractor.extract("Café Zürich\nΣΥΝΟΛΟ\nTOTAL 9.99\n");
+
+        assertEquals("Café Zürich", fields.merchantName());
+        assertEquals(new BigDecimal("9.99"), fields.amount());
+        // é is not folded to e, so "cafe" does not match
+        assertEquals("Other", fields.category());
+        assertEquals("Dining", extractor.extract("Ταβέρνα pizza\n").category());
+    }
+}
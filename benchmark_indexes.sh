@@ -0,0 +1,144 @@
+#!/bin/bash
+
+# Composite Index Benchmark for TakaTrack
+# Usage: ./benchmark_indexes.sh [expenses_per_user]
+# Purpose: Compare plans and latencies of the hot per-user queries before and
+#          after the V4__Composite_Indexes.sql migration on a seeded dataset.
+#
+# Runs against a scratch schema (index_bench) inside the mysql-db container,
+# so application data is never touched. The schema is dropped at the end.
+
+set -e
+
+CONTAINER="${DB_CONTAINER:-mysql-db}"
+ROOT_PASSWORD="${MYSQL_ROOT_PASSWORD:-rootpassword}"
+USERS=200
+EXPENSES_PER_USER="${1:-2500}"
+LOG_FILE="index_benchmark_$(date +%Y%m%d_%H%M%S).log"
+
+log() {
+    echo "$1" | tee -a "$LOG_FILE"
+}
+
+mysql_exec() {
+    docker exec -i "$CONTAINER" mysql -uroot -p"$ROOT_PASSWORD" --table index_bench 2>/dev/null
+}
+
+log "=== Composite Index Benchmark ==="
+log "Date: $(date)"
+log "Users: $USERS, expenses per user: $EXPENSES_PER_USER"
+
+log ""
+log "--- 1. Seeding scratch schema ---"
+docker exec -i "$CONTAINER" mysql -uroot -p"$ROOT_PASSWORD" 2>/dev/null <<SQL
+DROP DATABASE IF EXISTS index_bench;
+CREATE DATABASE index_bench;
+USE index_bench;
+
+-- Same columns and V1 single-column indexes as the real tables
+CREATE TABLE expenses (
+  id bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  amount decimal(38,2) NOT NULL,
+  date date NOT NULL,
+  description varchar(255) NOT NULL,
+  category_id bigint DEFAULT NULL,
+  user_id bigint NOT NULL,
+  KEY FK_expenses_category (category_id),
+  KEY FK_expenses_user (user_id)
+);
+CREATE TABLE budgets (
+  id bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  amount decimal(38,2) NOT NULL,
+  month int NOT NULL,
+  spent decimal(38,2) NOT NULL,
+  year int NOT NULL,
+  category_id bigint NOT NULL,
+  user_id bigint NOT NULL,
+  KEY FK_budgets_category (category_id),
+  KEY FK_budgets_user (user_id)
+);
+CREATE TABLE recurring_expenses (
+  id bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  active bit(1) NOT NULL,
+  next_due_date date NOT NULL,
+  user_id bigint NOT NULL,
+  KEY FK_recurring_expenses_user (user_id)
+);
+CREATE TABLE receipts (
+  id bigint NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  status varchar(255) NOT NULL,
+  user_id bigint NOT NULL,
+  KEY FK_receipts_user (user_id)
+);
+
+SET SESSION cte_max_recursion_depth = 1000000;
+
+INSERT INTO expenses (amount, date, description, category_id, user_id)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < $USERS * $EXPENSES_PER_USER - 1)
+SELECT ROUND(1 + RAND() * 500, 2),
+       DATE_SUB(CURDATE(), INTERVAL FLOOR(RAND() * 1095) DAY),
+       CONCAT('Expense ', n),
+       IF(RAND() < 0.1, NULL, 1 + FLOOR(RAND() * 12)),
+       1 + (n % $USERS)
+FROM seq;
+
+INSERT INTO budgets (amount, month, spent, year, category_id, user_id)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < $USERS * 36 * 12 - 1)
+SELECT 1000, 1 + (n DIV 12) % 12, 0, YEAR(CURDATE()) - (n DIV 144) % 3, 1 + n % 12, 1 + (n DIV 432)
+FROM seq;
+
+INSERT INTO recurring_expenses (active, next_due_date, user_id)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < $USERS * 50 - 1)
+SELECT RAND() < 0.7, DATE_ADD(CURDATE(), INTERVAL FLOOR(RAND() * 400) - 30 DAY), 1 + (n % $USERS)
+FROM seq;
+
+INSERT INTO receipts (status, user_id)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < $USERS * 200 - 1)
+SELECT ELT(1 + FLOOR(RAND() * 4), 'PENDING', 'PROCESSING', 'COMPLETED', 'FAILED'), 1 + (n % $USERS)
+FROM seq;
+
+ANALYZE TABLE expenses, budgets, recurring_expenses, receipts;
+SQL
+log "Seeded."
+
+QUERIES=$(cat <<SQL
+-- findByUserIdAndDateBetween
+EXPLAIN ANALYZE SELECT * FROM expenses
+ WHERE user_id = 42 AND date BETWEEN DATE_SUB(CURDATE(), INTERVAL 1 MONTH) AND CURDATE();
+-- findByUserIdAndCategoryIdAndDateBetween
+EXPLAIN ANALYZE SELECT * FROM expenses
+ WHERE user_id = 42 AND category_id = 3 AND date BETWEEN DATE_SUB(CURDATE(), INTERVAL 1 MONTH) AND CURDATE();
+-- sumByCategory (yearly)
+EXPLAIN ANALYZE SELECT category_id, SUM(amount), COUNT(*) FROM expenses
+ WHERE user_id = 42 AND date BETWEEN DATE_SUB(CURDATE(), INTERVAL 1 YEAR) AND CURDATE() GROUP BY category_id;
+-- BudgetRepository.findByUserIdAndYearAndMonth
+EXPLAIN ANALYZE SELECT * FROM budgets WHERE user_id = 42 AND year = YEAR(CURDATE()) AND month = 6;
+-- RecurringExpenseRepository.findByActiveAndNextDueDateLessThanEqual
+EXPLAIN ANALYZE SELECT * FROM recurring_expenses WHERE active = 1 AND next_due_date <= CURDATE();
+-- Receipts by status
+EXPLAIN ANALYZE SELECT * FROM receipts WHERE user_id = 42 AND status = 'PENDING';
+SQL
+)
+
+log ""
+log "--- 2. Plans BEFORE composite indexes ---"
+echo "$QUERIES" | mysql_exec | tee -a "$LOG_FILE"
+
+log ""
+log "--- 3. Applying V4__Composite_Indexes.sql ---"
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+{
+    cat "$SCRIPT_DIR/backend/src/main/resources/db/migration/V4__Composite_Indexes.sql"
+    echo "ANALYZE TABLE expenses, budgets, recurring_expenses, receipts;"
+} | mysql_exec > /dev/null
+log "Indexes created."
+
+log ""
+log "--- 4. Plans AFTER composite indexes ---"
+echo "$QUERIES" | mysql_exec | tee -a "$LOG_FILE"
+
+docker exec -i "$CONTAINER" mysql -uroot -p"$ROOT_PASSWORD" -e "DROP DATABASE index_bench;" 2>/dev/null
+
+log ""
+log "=== Benchmark complete. Compare 'actual time' on the top line of each plan. ==="
+log "Full log saved to: $LOG_FILE"
@@ -7,6 +7,7 @@ import { Button } from "@/components/ui/button";
 import { Badge } from "@/components/ui/badge";
 import { Input } from "@/components/ui/input";
 import { Label } from "@/components/ui/label";
+import { AuthImage } from "@/components/auth-image";
 import {
     Scan,
     Upload,
@@ -41,7 +42,9 @@ import {
 
 interface Receipt {
     id: number;
-    imageUrl: string;
+    originalUrl: string;
+    thumbnailUrl?: string | null;
+    previewUrl?: string | null;
     ocrText: string;
     merchantName: string;
     extractedAmount: number;
@@ -531,17 +534,15 @@ export default function ReceiptOCRPage() {
                                     <Card className="glass-card border-none overflow-hidden relative group cursor-pointer hover:shadow-xl transition-all duration-300">
                                         {/* Receipt Image */}
                                         <div className="relative h-48 bg-gradient-to-br from-green-500/10 to-emerald-500/10 overflow-hidden">
-                                            <img
+                                            <AuthImage
                                                 src={
-                                                    receipt.imageUrl ||
-                                                    "/placeholder-receipt.jpg"
+                                                    receipt.thumbnailUrl ??
+                                                    receipt.previewUrl ??
+                                                    receipt.originalUrl
                                                 }
                                                 alt="Receipt"
                                                 className="w-full h-full object-cover group-hover:scale-110 transition-transform duration-500"
-                                                onError={(e) => {
-                                                    const target = e.target as HTMLImageElement;
-                                                    target.src = "/placeholder-receipt.jpg";
-                                                }}
+                                                fallback="/placeholder-receipt.jpg"
                                             />
                                             <div className="absolute inset-0 bg-gradient-to-t from-black/80 via-black/20 to-transparent" />
                                             <Badge
@@ -697,10 +698,14 @@ export default function ReceiptOCRPage() {
                             <div className="space-y-6">
                                 {/* Receipt Image */}
                                 <div className="relative h-64 rounded-xl overflow-hidden border border-white/20">
-                                    <img
-                                        src={selectedReceipt.imageUrl}
+                                    <AuthImage
+                                        src={
+                                            selectedReceipt.previewUrl ??
+                                            selectedReceipt.originalUrl
+                                        }
                                         alt="Receipt"
                                         className="w-full h-full object-contain bg-black/20"
+                                        fallback="/placeholder-receipt.jpg"
                                     />
                                 </div>
 
@@ -6,6 +6,7 @@ import { Button } from "@/components/ui/button";
 import { Card, CardContent, CardHeader, CardTitle, CardDescription } from "@/components/ui/card";
 import { Label } from "@/components/ui/label";
 import { Input } from "@/components/ui/input";
+import { isAxiosError } from "axios";
 import api from "@/lib/api";
 
 export default function SettingsPage() {
@@ -31,6 +32,10 @@ export default function SettingsPage() {
       const res = await api.post("/recurring-expenses/generate-now");
       alert(`Generated ${res.data.generated} recurring expenses.`);
     } catch (error) {
+      if (isAxiosError(error) && error.response?.status === 409) {
+        alert(error.response.data?.message ?? "Recurring expense generation is already running.");
+        return;
+      }
       console.error("Failed to generate expenses", error);
       alert("Failed to generate expenses.");
     } finally {
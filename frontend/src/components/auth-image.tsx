@@ -0,0 +1,55 @@
+"use client";
+
+import { useEffect, useState } from "react";
+import api from "@/lib/api";
+
+interface AuthImageProps {
+    src?: string | null;
+    alt: string;
+    className?: string;
+    fallback?: string;
+}
+
+// Images behind the API need the bearer token, which a plain <img src> can't send,
+// so the bytes are fetched through the api client and shown from an object URL
+export function AuthImage({ src, alt, className, fallback }: AuthImageProps) {
+    const [objectUrl, setObjectUrl] = useState<string | null>(null);
+    const [failed, setFailed] = useState(false);
+
+    useEffect(() => {
+        if (!src) {
+            return;
+        }
+        let cancelled = false;
+        let url: string | null = null;
+
+        api.get(src.replace(/^\/api/, ""), { responseType: "blob" })
+            .then((response) => {
+                if (cancelled) {
+                    return;
+                }
+                url = URL.createObjectURL(response.data);
+                setObjectUrl(url);
+                setFailed(false);
+            })
+            .catch(() => {
+                if (!cancelled) {
+                    setFailed(true);
+                }
+            });
+
+        return () => {
+            cancelled = true;
+            if (url) {
+                URL.revokeObjectURL(url);
+            }
+            setObjectUrl(null);
+        };
+    }, [src]);
+
+    const shown = !src || failed ? fallback : objectUrl;
+    if (!shown) {
+        return <div className={className} />;
+    }
+    return <img src={shown} alt={alt} className={className} />;
+}